@@ -1,16 +1,52 @@
 package software.reinvent.dependency.parser.application;
 
 import com.beust.jcommander.JCommander;
+import com.beust.jcommander.IStringConverter;
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.converters.FileConverter;
+import com.google.common.cache.Cache;
+import com.google.common.collect.Lists;
+import org.apache.maven.model.Model;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.BlastRadius;
+import software.reinvent.dependency.parser.model.DependencyScope;
+import software.reinvent.dependency.parser.model.DependencySnapshot;
+import software.reinvent.dependency.parser.model.ParsedPom;
+import software.reinvent.dependency.parser.service.ArchivePomSource;
 import software.reinvent.dependency.parser.service.ArtifactDependencyGraph;
-import software.reinvent.dependency.parser.service.CsvWriter;
+import software.reinvent.dependency.parser.service.BlastRadiusAnalyzer;
+import software.reinvent.dependency.parser.service.BlastRadiusWriter;
+import software.reinvent.dependency.parser.service.BuildOrderAnalyzer;
+import software.reinvent.dependency.parser.service.BuildOrderWriter;
+import software.reinvent.dependency.parser.service.ChangeReportWriter;
+import software.reinvent.dependency.parser.service.DirectoryPomSource;
+import software.reinvent.dependency.parser.service.GitPomSource;
+import software.reinvent.dependency.parser.service.GraphDiff;
+import software.reinvent.dependency.parser.service.GroupIdClassifier;
+import software.reinvent.dependency.parser.service.JsonLinesSnapshotReader;
+import software.reinvent.dependency.parser.service.PomDiscovery;
+import software.reinvent.dependency.parser.service.PomParseCache;
+import software.reinvent.dependency.parser.service.PomReader;
+import software.reinvent.dependency.parser.service.PomSource;
+import software.reinvent.dependency.parser.service.ProgressListener;
+import software.reinvent.dependency.parser.service.ReactorPomSource;
+import software.reinvent.dependency.parser.service.ReportFormat;
+import software.reinvent.dependency.parser.service.ReportGenerator;
+import software.reinvent.dependency.parser.service.ReportWriter;
+import software.reinvent.dependency.parser.service.ScanIndex;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
 /**
@@ -20,11 +56,46 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
  */
 public class DependencyParser {
   private static final Logger logger = LoggerFactory.getLogger(DependencyParser.class);
+  private static final String SCAN_INDEX_DIR = "scan-index";
 
   @Parameter(names = { "--rootDir", "-d" },
              description = "The root directory where to start the recursive scan of pom files (Required).",
              converter = FileConverter.class) private File rootDir;
 
+  @Parameter(names = { "--discovery" },
+             description = "How pom files are found under the rootDir: walk scans all directories which are not "
+                           + "excluded, reactor follows the modules of the top level poms.",
+             converter = PomDiscoveryConverter.class) private PomDiscovery discovery = PomDiscovery.WALK;
+
+  @Parameter(names = { "--exclude", "-e" },
+             description = "Globs of directories to skip while scanning the rootDir, matched against the name and "
+                           + "the relative path of a directory. Replaces the defaults target, node_modules, "
+                           + "bower_components, .git, .svn, .hg and .idea.") private List<String> excludes
+    = Lists.newArrayList(DirectoryPomSource.DEFAULT_EXCLUDES);
+
+  @Parameter(names = { "--gitRepository" },
+             description = "A local git repository, bare or not, whose pom files are read straight from the object "
+                           + "database instead of scanning the rootDir. May be given multiple times.",
+             converter = FileConverter.class) private List<File> gitRepositories = Lists.newArrayList();
+
+  @Parameter(names = { "--gitRef" },
+             description = "The refs to scan in every git repository.") private List<String> gitRefs
+    = Lists.newArrayList("HEAD");
+
+  @Parameter(names = { "--archiveDir" },
+             description = "An archive or a directory with jars, wars, ears or zips whose embedded pom files are "
+                           + "parsed. May be given multiple times.",
+             converter = FileConverter.class) private List<File> archiveDirs = Lists.newArrayList();
+
+  @Parameter(names = { "--parseCacheDir" },
+             description = "A directory to cache the dependency data of parsed pom files by their content and the "
+                           + "directories of the last scan of the rootDir. May be shared between workspaces and runs.",
+             converter = FileConverter.class) private File parseCacheDir;
+
+  @Parameter(names = { "--parseCacheMaxBytes" },
+             description = "The maximum size of the parse cache, least recently used entries are evicted.")
+  private long parseCacheMaxBytes = 256L * 1024 * 1024;
+
   @Parameter(names = { "--resultDir", "-r" },
              description = "The dir where the CSV files will be written.",
              converter = FileConverter.class) private File resultDir = new File(System.getProperty("user.dir"));
@@ -35,13 +106,60 @@ public class DependencyParser {
   @Parameter(names = { "--csvSeparator", "-s" },
              description = "The separator used in the csv files.") private String csvSeparator = "\t";
 
+  @Parameter(names = { "--format", "-f" },
+             description = "The report formats to write: csv, jsonl, graphml, dot or licenses.",
+             converter = ReportFormatConverter.class) private List<ReportFormat> formats
+    = Lists.newArrayList(ReportFormat.CSV);
+
   @Parameter(names = { "--groupId", "-g" },
-             description = "The internal maven group id.") private String internalGroupId = EMPTY;
+             description = "An internal maven group id like com.acme, or a pattern like com.acme.* for the group "
+                           + "and all groups below or org.acme* for all groups with this prefix. May be given "
+                           + "multiple times.") private List<String> internalGroupIds = Lists.newArrayList();
+
+  @Parameter(names = { "--enrichInternal" },
+             description = "Looks up the licenses and descriptions of internal dependencies in the maven repository "
+                           + "as well.") private boolean enrichInternal = false;
+
+  @Parameter(names = { "--scope" },
+             description = "The comma separated dependency scopes to report: compile, provided, runtime, test, "
+                           + "system or import. All scopes are reported by default.",
+             converter = DependencyScopeConverter.class) private List<DependencyScope> scopes = Lists.newArrayList();
+
+  @Parameter(names = { "--skipEnrichment" },
+             description = "Does not look up any dependency in the maven repository, only the poms are read. The "
+                           + "http client is not even loaded, which makes small local runs start fast.")
+  private boolean skipEnrichment = false;
+
+  @Parameter(names = { "--skipTestEnrichment" },
+             description = "Does not look up the licenses and descriptions of dependencies which are only used in "
+                           + "the test scope.") private boolean skipTestEnrichment = false;
+
+  @Parameter(names = { "--buildOrder" },
+             description = "Writes the dependency cycles and the build waves of the internal artifacts, or of all "
+                           + "artifacts if no groupId is given.") private boolean buildOrder = false;
+
+  @Parameter(names = { "--blastRadius" },
+             description = "Ranks all artifacts and dependencies by their direct and transitive dependents and "
+                           + "their PageRank.") private boolean blastRadius = false;
+
+  @Parameter(names = { "--diffAgainst" },
+             description = "A JSON Lines report of an earlier run to compare the dependencies with. The added, "
+                           + "removed and changed dependencies are written to Changes_{date}.csv.",
+             converter = FileConverter.class) private File diffAgainst;
+
+  @Parameter(names = { "--diffTarget" },
+             description = "A newer JSON Lines report to compare with the diffAgainst report instead of parsing "
+                           + "any poms.",
+             converter = FileConverter.class) private File diffTarget;
 
   @Parameter(names = { "--mavenUri", "-m" },
              description = "A specific maven repository URI.") private String
     mavenUri
     = "https://repository.sonatype.org/service/local/artifact/maven/redirect";
+  @Parameter(names = { "--mavenMetadataUri" },
+             description = "The content URI of the maven repository to resolve LATEST, RELEASE and version ranges "
+                           + "through maven-metadata.xml files. Derived from the mavenUri of a Nexus by default.")
+  private String mavenMetadataUri = EMPTY;
   @Parameter(names = { "--mavenRepository" },
              description = "Repository that the artifact is contained in.") private String
     mavenRepository
@@ -61,23 +179,175 @@ public class DependencyParser {
       } else {
         parser.run();
       }
+    } catch (ParameterException e) {
+      logger.error(e.getMessage());
+      System.exit(1);
     } catch (IOException e) {
       logger.error("Some problem occured.", e);
     }
   }
 
   private void run() throws IOException {
-    if ( rootDir == null ) {
-      logger.error("The rootDir must be set but is {}.", rootDir);
+    if ( diffAgainst != null && diffTarget != null ) {
+      try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(diffAgainst);
+           JsonLinesSnapshotReader after = new JsonLinesSnapshotReader(diffTarget)) {
+        new ChangeReportWriter(csvSeparator).write(new GraphDiff().diff(before, after), resultDir, prefix);
+      }
+      System.exit(0);
+    }
+    if ( rootDir == null && gitRepositories.isEmpty() && archiveDirs.isEmpty() ) {
+      logger.error("The rootDir, a gitRepository or an archiveDir must be set but is {}.", rootDir);
       System.exit(1);
     }
-    final ArtifactDependencyGraph artifactDependencyGraph = new ArtifactDependencyGraph(rootDir,
-                                                                                        mavenUri,
-                                                                                        mavenUser,
-                                                                                        mavenPassword,
-                                                                                        mavenRepository);
-    final CsvWriter csvWriter = new CsvWriter(artifactDependencyGraph.getAllArtifacts(), csvSeparator);
-    csvWriter.writeDependencies(internalGroupId, resultDir, prefix);
+    final GroupIdClassifier internalGroups = new GroupIdClassifier(internalGroupIds);
+    final GroupIdClassifier notEnrichedGroups = enrichInternal ? GroupIdClassifier.NONE : internalGroups;
+    final ArtifactDependencyGraph.Builder graphBuilder =
+      ArtifactDependencyGraph.builder(createPomSource())
+                             .repository(mavenUri, mavenRepository, mavenUser, mavenPassword)
+                             .metadataUri(mavenMetadataUri)
+                             .notEnrichedGroups(notEnrichedGroups)
+                             .enrichTestScope(!skipTestEnrichment)
+                             .progressListener(new LoggingProgressListener());
+    if ( skipEnrichment ) {
+      graphBuilder.withoutEnrichment();
+    }
+    final ArtifactDependencyGraph artifactDependencyGraph = graphBuilder.build();
+    final List<ReportWriter> writers = formats.stream()
+                                              .distinct()
+                                              .map(format -> format.createWriter(csvSeparator))
+                                              .collect(toList());
+    new ReportGenerator(artifactDependencyGraph.getAllArtifacts(), internalGroups, parseScopes()).write(resultDir,
+                                                                                                        prefix,
+                                                                                                        writers);
+    if ( buildOrder ) {
+      final List<Artifact> internalArtifacts = artifactDependencyGraph.getAllArtifacts()
+                                                                      .stream()
+                                                                      .filter(artifact -> isInternal(artifact,
+                                                                                                     internalGroups))
+                                                                      .collect(toList());
+      new BuildOrderWriter(csvSeparator).write(new BuildOrderAnalyzer().analyze(internalArtifacts), resultDir, prefix);
+    }
+    if ( blastRadius ) {
+      final List<BlastRadius> blastRadii = new BlastRadiusAnalyzer().analyze(artifactDependencyGraph.getAllArtifacts(),
+                                                                             parseScopes());
+      new BlastRadiusWriter(csvSeparator, internalGroups).write(blastRadii, resultDir, prefix);
+    }
+    if ( diffAgainst != null ) {
+      final Iterator<DependencySnapshot> after = GraphDiff.snapshot(artifactDependencyGraph.getAllArtifacts(),
+                                                                    parseScopes());
+      try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(diffAgainst)) {
+        new ChangeReportWriter(csvSeparator).write(new GraphDiff().diff(before, after), resultDir, prefix);
+      }
+    }
     System.exit(0);
   }
+
+  /**
+   * @return the scopes to report, all if none are given
+   */
+  private Set<DependencyScope> parseScopes() {
+    return scopes.isEmpty() ? EnumSet.allOf(DependencyScope.class) : EnumSet.copyOf(scopes);
+  }
+
+  /**
+   * @return true, if the artifact belongs to an internal group or no internal groups are given
+   */
+  private boolean isInternal(final Artifact artifact, final GroupIdClassifier internalGroups) {
+    return internalGroupIds.isEmpty() || internalGroups.matches(artifact.getGroupId());
+  }
+
+  /**
+   * @return all given sources of poms: the rootDir, git repositories and archives
+   */
+  private PomSource createPomSource() throws IOException {
+    final PomReader pomReader = parseCacheDir == null
+                                ? new PomReader()
+                                : new PomReader(new PomParseCache(parseCacheDir, parseCacheMaxBytes));
+    final List<PomSource> sources = Lists.newArrayList();
+    if ( rootDir != null && discovery == PomDiscovery.REACTOR ) {
+      sources.add(new ReactorPomSource(rootDir, pomReader, excludes));
+    } else if ( rootDir != null && parseCacheDir != null ) {
+      sources.add(new DirectoryPomSource(rootDir,
+                                         pomReader,
+                                         excludes,
+                                         new ScanIndex(new File(parseCacheDir, SCAN_INDEX_DIR))));
+    } else if ( rootDir != null ) {
+      sources.add(new DirectoryPomSource(rootDir, pomReader, excludes));
+    }
+    archiveDirs.forEach(archiveDir -> sources.add(new ArchivePomSource(archiveDir, pomReader)));
+    if ( !gitRepositories.isEmpty() ) {
+      final Cache<String, Model> blobCache = GitPomSource.newBlobCache();
+      gitRepositories.forEach(repository -> gitRefs.forEach(ref -> sources.add(new GitPomSource(repository,
+                                                                                               ref,
+                                                                                               blobCache,
+                                                                                               pomReader))));
+    }
+    return () -> sources.stream().flatMap(PomSource::poms);
+  }
+
+  /**
+   * Rejects unknown values of --discovery.
+   */
+  public static class PomDiscoveryConverter implements IStringConverter<PomDiscovery> {
+    @Override public PomDiscovery convert(final String value) {
+      try {
+        return PomDiscovery.parse(value);
+      } catch (IllegalArgumentException e) {
+        throw new ParameterException("Unknown discovery " + value + ", use walk or reactor.");
+      }
+    }
+  }
+
+  /**
+   * Rejects unknown values of --format.
+   */
+  public static class ReportFormatConverter implements IStringConverter<ReportFormat> {
+    @Override public ReportFormat convert(final String value) {
+      try {
+        return ReportFormat.parse(value);
+      } catch (IllegalArgumentException e) {
+        throw new ParameterException("Unknown format " + value + ", use csv, jsonl, graphml, dot or licenses.");
+      }
+    }
+  }
+
+  /**
+   * Rejects unknown values of --scope.
+   */
+  public static class DependencyScopeConverter implements IStringConverter<DependencyScope> {
+    @Override public DependencyScope convert(final String value) {
+      try {
+        return DependencyScope.parse(value);
+      } catch (IllegalArgumentException e) {
+        throw new ParameterException("Unknown scope " + value + ", use compile, provided, runtime, test, system or "
+                                     + "import.");
+      }
+    }
+  }
+
+  /**
+   * Logs the phases and every thousandth pom and lookup.
+   */
+  private static class LoggingProgressListener implements ProgressListener {
+    private final Logger logger = LoggerFactory.getLogger(LoggingProgressListener.class);
+
+    @Override public void onPhase(final Phase phase) {
+      logger.info("Phase {}.", phase);
+    }
+
+    @Override public void onPomParsed(final ParsedPom pom, final int parsedPoms) {
+      if ( parsedPoms % 1000 == 0 ) {
+        logger.info("Parsed {} poms.", parsedPoms);
+      }
+    }
+
+    @Override public void onDependencyEnriched(final ArtifactDependency dependency,
+                                               final String version,
+                                               final int enriched,
+                                               final int submitted) {
+      if ( enriched % 1000 == 0 ) {
+        logger.info("Enriched {} of {} dependency versions.", enriched, submitted);
+      }
+    }
+  }
 }
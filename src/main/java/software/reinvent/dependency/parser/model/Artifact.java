@@ -1,9 +1,13 @@
 package software.reinvent.dependency.parser.model;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -15,6 +19,7 @@ import java.util.Set;
  * <li>packaging type</li>
  * <li>all parsed versions</li>
  * <li>the parsed artifact parent</li>
+ * <li>the dependencies, indexed by their scope</li>
  * </ul>
  *
  * @see <a href="https://maven.apache.org/glossary.html">Maven Glossary</a>
@@ -30,6 +35,7 @@ public class Artifact {
   private final LocalDateTime fileDate;
 
   private final Set<ArtifactDependency> dependencies = Sets.newHashSet();
+  private final Map<DependencyScope, Set<DependencyEdge>> dependencyEdges = new EnumMap<>(DependencyScope.class);
 
   public Artifact(final String groupId,
                   final String artifactId,
@@ -56,10 +62,72 @@ public class Artifact {
     return fileDate;
   }
 
+  /**
+   * @return all dependencies of all scopes, including those added without an edge
+   */
   public Set<ArtifactDependency> getDependencies() {
     return dependencies;
   }
 
+  /**
+   * Collects the dependencies of the given scopes from their partitions, the edges of other scopes are not visited.
+   *
+   * @param scopes the scopes to include
+   *
+   * @return the dependencies used in any of the scopes
+   */
+  public Set<ArtifactDependency> getDependencies(final Set<DependencyScope> scopes) {
+    if ( scopes.size() == DependencyScope.values().length ) {
+      return dependencies;
+    }
+    final Set<ArtifactDependency> scopedDependencies = Sets.newHashSet();
+    scopes.forEach(scope -> getDependencyEdges(scope).forEach(edge -> scopedDependencies.add(edge.getDependency())));
+    return scopedDependencies;
+  }
+
+  /**
+   * @param scope the scope of the edges
+   *
+   * @return the edges of a single scope
+   */
+  public Set<DependencyEdge> getDependencyEdges(final DependencyScope scope) {
+    return dependencyEdges.getOrDefault(scope, ImmutableSet.of());
+  }
+
+  /**
+   * @return the edges of all scopes
+   */
+  public Set<DependencyEdge> getDependencyEdges() {
+    final Set<DependencyEdge> edges = Sets.newHashSet();
+    dependencyEdges.values().forEach(edges::addAll);
+    return edges;
+  }
+
+  /**
+   * Adds the edges to the partitions of their scopes and their dependencies to {@link #getDependencies()}.
+   *
+   * @param edges the edges to add
+   */
+  public void addDependencyEdges(final Collection<DependencyEdge> edges) {
+    edges.forEach(edge -> {
+      dependencies.add(edge.getDependency());
+      dependencyEdges.computeIfAbsent(edge.getScope(), scope -> Sets.newHashSet()).add(edge);
+    });
+  }
+
+  /**
+   * Moves an edge to the partition of another scope.
+   *
+   * @param edge        the edge to remove
+   * @param replacement the edge to add instead
+   */
+  public void replaceDependencyEdge(final DependencyEdge edge, final DependencyEdge replacement) {
+    final Set<DependencyEdge> edges = dependencyEdges.get(edge.getScope());
+    if ( edges != null && edges.remove(edge) ) {
+      addDependencyEdges(ImmutableSet.of(replacement));
+    }
+  }
+
   @Override public int hashCode() {
     int result = getGroupId().hashCode();
     result = 31 * result + getArtifactId().hashCode();
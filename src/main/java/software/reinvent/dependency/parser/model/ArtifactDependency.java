@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -17,8 +18,13 @@ import static org.apache.commons.lang3.StringUtils.*;
  * <li>all parsed versions</li>
  * <li>all parsed licenses</li>
  * <li>the parsed description</li>
+ * <li>the status of the license and description lookup</li>
+ * <li>the scopes it is used in</li>
  * </ul>
  *
+ * The versions, licenses, description and metadata status may be updated concurrently while the dependency is
+ * enriched in the background.
+ *
  * @see <a href="https://maven.apache.org/glossary.html">Maven Glossary</a>
  * <br>
  * Created by Leonard Daume on 06.01.2016.
@@ -26,9 +32,12 @@ import static org.apache.commons.lang3.StringUtils.*;
 public class ArtifactDependency {
   private final String groupId;
   private final String artifactId;
-  private final Set<String> versions = Sets.newHashSet();
+  private final Set<String> versions = Sets.newConcurrentHashSet();
   private final Set<ArtifactLicense> artifactLicenses = Sets.newConcurrentHashSet();
-  private String description = EMPTY;
+  private final Set<String> licenseUrls = Sets.newConcurrentHashSet();
+  private volatile String description = EMPTY;
+  private MetadataStatus metadataStatus = MetadataStatus.NOT_REQUESTED;
+  private final Set<DependencyScope> scopes = EnumSet.noneOf(DependencyScope.class);
 
   public ArtifactDependency(final String groupId, final String artifactId, final String version) {
     this.groupId = groupId;
@@ -44,6 +53,14 @@ public class ArtifactDependency {
     return artifactLicenses;
   }
 
+  /**
+   * @return the license urls as given by the pom files, the {@link ArtifactLicense}s of SPDX licenses carry the
+   * canonical url instead
+   */
+  public Set<String> getLicenseUrls() {
+    return licenseUrls;
+  }
+
   @Override public int hashCode() {
     int result = getGroupId().hashCode();
     result = 31 * result + getArtifactId().hashCode();
@@ -86,5 +103,33 @@ public class ArtifactDependency {
   public String getDescription() {
     return description;
   }
-}
 
+  /**
+   * Records the result of a metadata lookup. The status with the highest ordinal of all lookups is kept.
+   *
+   * @param status the result of a single lookup
+   */
+  public synchronized void addMetadataStatus(final MetadataStatus status) {
+    if ( status.compareTo(metadataStatus) > 0 ) {
+      metadataStatus = status;
+    }
+  }
+
+  public synchronized MetadataStatus getMetadataStatus() {
+    return metadataStatus;
+  }
+
+  /**
+   * @param scope a scope the dependency is used in by any artifact
+   */
+  public synchronized void addScope(final DependencyScope scope) {
+    scopes.add(scope);
+  }
+
+  /**
+   * @return the scopes the dependency is used in by any artifact, empty if it is only managed
+   */
+  public synchronized Set<DependencyScope> getScopes() {
+    return ImmutableSet.copyOf(scopes);
+  }
+}
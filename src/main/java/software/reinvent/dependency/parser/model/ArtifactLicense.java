@@ -2,6 +2,10 @@ package software.reinvent.dependency.parser.model;
 
 /**
  * Parsed description and url of a license for a project.
+ * <p>
+ * A license known to SPDX is identified by its SPDX identifier alone and carries the canonical url on spdx.org, so all
+ * spellings of it are one license. The urls given by the pom files are kept in
+ * {@link ArtifactDependency#getLicenseUrls()}.
  *
  * @see <a href="https://maven.apache.org/glossary.html">Maven Glossary</a>
  * <br>
@@ -10,13 +14,39 @@ package software.reinvent.dependency.parser.model;
 public class ArtifactLicense {
   private final String license;
   private final String url;
+  private final String spdxId;
 
   public ArtifactLicense(final String license, final String url) {
+    this(license, url, null);
+  }
+
+  /**
+   * @param license the name of the license
+   * @param url     the url of the license text
+   * @param spdxId  the SPDX identifier or expression, null if the license is not known
+   */
+  public ArtifactLicense(final String license, final String url, final String spdxId) {
     this.license = license;
     this.url = url;
+    this.spdxId = spdxId;
+  }
+
+  public String getLicense() {
+    return license;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public String getSpdxId() {
+    return spdxId;
   }
 
   @Override public int hashCode() {
+    if ( spdxId != null ) {
+      return spdxId.hashCode();
+    }
     int result = license != null ? license.hashCode() : 0;
     result = 31 * result + ( url != null ? url.hashCode() : 0 );
     return result;
@@ -30,6 +60,8 @@ public class ArtifactLicense {
 
     final ArtifactLicense that = (ArtifactLicense) o;
 
+    if ( spdxId != null || that.spdxId != null )
+      return spdxId != null && spdxId.equals(that.spdxId);
     if ( license != null ? !license.equals(that.license) : that.license != null )
       return false;
     return url != null ? url.equals(that.url) : that.url == null;
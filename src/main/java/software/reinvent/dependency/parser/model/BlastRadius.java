@@ -0,0 +1,53 @@
+package software.reinvent.dependency.parser.model;
+
+/**
+ * How far the change of a dependency or artifact spreads through the graph:
+ * <ul>
+ * <li>the number of artifacts using it directly</li>
+ * <li>the number of artifacts using it directly or through other artifacts</li>
+ * <li>its PageRank, the share of all dependency paths ending in it, weighted by the importance of the dependents</li>
+ * </ul>
+ */
+public class BlastRadius {
+  private final String groupId;
+  private final String artifactId;
+  private final int directDependents;
+  private final int transitiveDependents;
+  private final double pageRank;
+
+  public BlastRadius(final String groupId,
+                     final String artifactId,
+                     final int directDependents,
+                     final int transitiveDependents,
+                     final double pageRank) {
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.directDependents = directDependents;
+    this.transitiveDependents = transitiveDependents;
+    this.pageRank = pageRank;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  public int getDirectDependents() {
+    return directDependents;
+  }
+
+  public int getTransitiveDependents() {
+    return transitiveDependents;
+  }
+
+  public double getPageRank() {
+    return pageRank;
+  }
+
+  @Override public String toString() {
+    return groupId + ":" + artifactId + " " + directDependents + "/" + transitiveDependents + "/" + pageRank;
+  }
+}
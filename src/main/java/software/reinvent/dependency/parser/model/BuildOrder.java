@@ -0,0 +1,46 @@
+package software.reinvent.dependency.parser.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The order in which artifacts can be built:
+ * <ul>
+ * <li>waves of artifacts, every artifact only depends on artifacts of earlier waves so all artifacts of a wave can be
+ * built in parallel</li>
+ * <li>cycles of artifacts which depend on each other, all artifacts of a cycle share one wave</li>
+ * </ul>
+ */
+public class BuildOrder {
+  private final List<List<Artifact>> waves;
+  private final List<List<Artifact>> cycles;
+  private final Map<Artifact, Integer> waveByArtifact;
+
+  public BuildOrder(final List<List<Artifact>> waves,
+                    final List<List<Artifact>> cycles,
+                    final Map<Artifact, Integer> waveByArtifact) {
+    this.waves = ImmutableList.copyOf(waves);
+    this.cycles = ImmutableList.copyOf(cycles);
+    this.waveByArtifact = ImmutableMap.copyOf(waveByArtifact);
+  }
+
+  public List<List<Artifact>> getWaves() {
+    return waves;
+  }
+
+  public List<List<Artifact>> getCycles() {
+    return cycles;
+  }
+
+  /**
+   * @param artifact any analyzed artifact
+   *
+   * @return the wave of the artifact starting with 0 or -1 if the artifact was not analyzed
+   */
+  public int getWave(final Artifact artifact) {
+    return waveByArtifact.getOrDefault(artifact, -1);
+  }
+}
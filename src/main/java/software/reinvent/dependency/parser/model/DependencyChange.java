@@ -0,0 +1,94 @@
+package software.reinvent.dependency.parser.model;
+
+import java.util.Set;
+
+/**
+ * The change of one dependency between two graphs with the added and removed versions, licenses and dependents.
+ */
+public class DependencyChange {
+
+  public enum Kind {
+    /**
+     * The dependency is new.
+     */
+    ADDED,
+    /**
+     * The dependency is not used any more.
+     */
+    REMOVED,
+    /**
+     * The versions, licenses or dependents of the dependency changed.
+     */
+    CHANGED
+  }
+
+  private final Kind kind;
+  private final String groupId;
+  private final String artifactId;
+  private final Set<String> addedVersions;
+  private final Set<String> removedVersions;
+  private final Set<String> addedLicenses;
+  private final Set<String> removedLicenses;
+  private final Set<String> addedDependents;
+  private final Set<String> removedDependents;
+
+  public DependencyChange(final Kind kind,
+                          final String groupId,
+                          final String artifactId,
+                          final Set<String> addedVersions,
+                          final Set<String> removedVersions,
+                          final Set<String> addedLicenses,
+                          final Set<String> removedLicenses,
+                          final Set<String> addedDependents,
+                          final Set<String> removedDependents) {
+    this.kind = kind;
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.addedVersions = addedVersions;
+    this.removedVersions = removedVersions;
+    this.addedLicenses = addedLicenses;
+    this.removedLicenses = removedLicenses;
+    this.addedDependents = addedDependents;
+    this.removedDependents = removedDependents;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  public Set<String> getAddedVersions() {
+    return addedVersions;
+  }
+
+  public Set<String> getRemovedVersions() {
+    return removedVersions;
+  }
+
+  public Set<String> getAddedLicenses() {
+    return addedLicenses;
+  }
+
+  public Set<String> getRemovedLicenses() {
+    return removedLicenses;
+  }
+
+  public Set<String> getAddedDependents() {
+    return addedDependents;
+  }
+
+  public Set<String> getRemovedDependents() {
+    return removedDependents;
+  }
+
+  @Override public String toString() {
+    return kind + " " + groupId + ":" + artifactId;
+  }
+}
@@ -0,0 +1,98 @@
+package software.reinvent.dependency.parser.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Objects;
+
+/**
+ * The usage of an {@link ArtifactDependency} by an {@link Artifact} with the scope, classifier, type and optional
+ * flag of the pom. An artifact may use the same dependency several times, like with and without the tests classifier.
+ */
+public class DependencyEdge {
+  private final ArtifactDependency dependency;
+  private final DependencyScope scope;
+  private final boolean scopeDeclared;
+  private final String classifier;
+  private final String type;
+  private final boolean optional;
+
+  /**
+   * @param dependency    the used dependency
+   * @param scope         the effective scope
+   * @param scopeDeclared false, if the scope is not given by the dependency itself but is managed or the default
+   * @param classifier    the classifier or null
+   * @param type          the type like jar or pom
+   * @param optional      true, if the dependency is optional
+   */
+  public DependencyEdge(final ArtifactDependency dependency,
+                        final DependencyScope scope,
+                        final boolean scopeDeclared,
+                        final String classifier,
+                        final String type,
+                        final boolean optional) {
+    this.dependency = dependency;
+    this.scope = scope;
+    this.scopeDeclared = scopeDeclared;
+    this.classifier = classifier;
+    this.type = type;
+    this.optional = optional;
+  }
+
+  /**
+   * @param scope the new effective scope
+   *
+   * @return a copy of this edge with another scope which is not declared
+   */
+  public DependencyEdge withManagedScope(final DependencyScope scope) {
+    return new DependencyEdge(dependency, scope, false, classifier, type, optional);
+  }
+
+  public ArtifactDependency getDependency() {
+    return dependency;
+  }
+
+  public DependencyScope getScope() {
+    return scope;
+  }
+
+  public boolean isScopeDeclared() {
+    return scopeDeclared;
+  }
+
+  public String getClassifier() {
+    return classifier;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public boolean isOptional() {
+    return optional;
+  }
+
+  @Override public int hashCode() {
+    return Objects.hash(dependency, scope, classifier, type, optional);
+  }
+
+  @Override public boolean equals(final Object o) {
+    if ( this == o )
+      return true;
+    if ( o == null || getClass() != o.getClass() )
+      return false;
+
+    final DependencyEdge that = (DependencyEdge) o;
+
+    return optional == that.optional && dependency.equals(that.dependency) && scope == that.scope
+           && Objects.equals(classifier, that.classifier) && Objects.equals(type, that.type);
+  }
+
+  @Override public String toString() {
+    return ImmutableList.of(dependency.getGroupId(),
+                            dependency.getArtifactId(),
+                            scope,
+                            Objects.toString(classifier, ""),
+                            Objects.toString(type, ""),
+                            optional).toString();
+  }
+}
@@ -0,0 +1,49 @@
+package software.reinvent.dependency.parser.model;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.trim;
+import static org.apache.commons.lang3.StringUtils.upperCase;
+
+/**
+ * The scope of a dependency.
+ *
+ * @see <a href="https://maven.apache.org/guides/introduction/introduction-to-dependency-mechanism.html#Dependency_Scope">
+ * Dependency Scope</a>
+ */
+public enum DependencyScope {
+  /**
+   * The default scope, available on all classpaths and packaged.
+   */
+  COMPILE,
+  /**
+   * Expected to be provided by the JDK or a container at runtime.
+   */
+  PROVIDED,
+  /**
+   * Not needed for compilation, but for execution.
+   */
+  RUNTIME,
+  /**
+   * Only needed to compile and run the tests.
+   */
+  TEST,
+  /**
+   * Like provided, but the jar is given by a path.
+   */
+  SYSTEM,
+  /**
+   * A bill of materials imported into the dependency management.
+   */
+  IMPORT;
+
+  /**
+   * @param scope the scope of a pom like test or runtime
+   *
+   * @return the scope or {@link #COMPILE} if blank
+   *
+   * @throws IllegalArgumentException if the scope is unknown
+   */
+  public static DependencyScope parse(final String scope) {
+    return isBlank(scope) ? COMPILE : valueOf(upperCase(trim(scope)));
+  }
+}
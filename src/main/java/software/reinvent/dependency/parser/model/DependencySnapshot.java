@@ -0,0 +1,60 @@
+package software.reinvent.dependency.parser.model;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+import java.util.Collection;
+import java.util.SortedSet;
+
+/**
+ * The state of an {@link ArtifactDependency} at one point in time as compared by a graph diff:
+ * <ul>
+ * <li>group id</li>
+ * <li>artifact id</li>
+ * <li>all used versions</li>
+ * <li>the names of all licenses</li>
+ * <li>all dependent artifacts as groupId:artifactId</li>
+ * </ul>
+ */
+public class DependencySnapshot {
+  private final String groupId;
+  private final String artifactId;
+  private final SortedSet<String> versions;
+  private final SortedSet<String> licenses;
+  private final SortedSet<String> dependents;
+
+  public DependencySnapshot(final String groupId,
+                            final String artifactId,
+                            final Collection<String> versions,
+                            final Collection<String> licenses,
+                            final Collection<String> dependents) {
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.versions = ImmutableSortedSet.copyOf(versions);
+    this.licenses = ImmutableSortedSet.copyOf(licenses);
+    this.dependents = ImmutableSortedSet.copyOf(dependents);
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  public SortedSet<String> getVersions() {
+    return versions;
+  }
+
+  public SortedSet<String> getLicenses() {
+    return licenses;
+  }
+
+  public SortedSet<String> getDependents() {
+    return dependents;
+  }
+
+  @Override public String toString() {
+    return groupId + ":" + artifactId;
+  }
+}
@@ -0,0 +1,24 @@
+package software.reinvent.dependency.parser.model;
+
+/**
+ * The result of looking up the licenses and the description of an {@link ArtifactDependency} in a remote repository.
+ * A status with a higher ordinal wins when several versions of a dependency were looked up.
+ */
+public enum MetadataStatus {
+  /**
+   * No lookup was done.
+   */
+  NOT_REQUESTED,
+  /**
+   * The repository does not contain a pom.
+   */
+  NOT_FOUND,
+  /**
+   * The repository could not be asked, so it is unknown whether there are licenses.
+   */
+  UNKNOWN,
+  /**
+   * The pom was found and parsed.
+   */
+  RESOLVED
+}
@@ -0,0 +1,43 @@
+package software.reinvent.dependency.parser.model;
+
+import org.apache.maven.model.Model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A parsed pom file containing:
+ * <ul>
+ * <li>the maven model</li>
+ * <li>the date of the pom file</li>
+ * <li>a human readable location like a path or a blob in a git repository</li>
+ * </ul>
+ *
+ * @see <a href="https://maven.apache.org/glossary.html">Maven Glossary</a>
+ */
+public class ParsedPom {
+  private final Model model;
+  private final LocalDateTime fileDate;
+  private final String location;
+
+  public ParsedPom(final Model model, final LocalDateTime fileDate, final String location) {
+    this.model = model;
+    this.fileDate = fileDate;
+    this.location = location;
+  }
+
+  public Model getModel() {
+    return model;
+  }
+
+  public LocalDateTime getFileDate() {
+    return fileDate;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  @Override public String toString() {
+    return location;
+  }
+}
@@ -0,0 +1,71 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket rate limit which adapts to the load of a remote repository: every throttled request (HTTP 429)
+ * halves the rate and pauses all requests for the announced Retry-After time, every successful request increases the
+ * rate by one request per second again until the maximum rate is reached.
+ */
+public class AdaptiveRateLimiter {
+
+  private final RateLimiter rateLimiter;
+  private final double minRate;
+  private final double maxRate;
+  private final AtomicLong pausedUntilNanos = new AtomicLong(System.nanoTime());
+
+  /**
+   * @param initialRate the initial rate in requests per second
+   * @param minRate     the rate will never be decreased below this rate
+   * @param maxRate     the rate will never be increased above this rate
+   */
+  public AdaptiveRateLimiter(final double initialRate, final double minRate, final double maxRate) {
+    this.rateLimiter = RateLimiter.create(initialRate);
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+  }
+
+  /**
+   * Blocks until a request is allowed.
+   *
+   * @throws InterruptedException if interrupted while waiting for a pause to end
+   */
+  public void acquire() throws InterruptedException {
+    long pause;
+    while (( pause = pausedUntilNanos.get() - System.nanoTime() ) > 0) {
+      TimeUnit.NANOSECONDS.sleep(pause);
+    }
+    rateLimiter.acquire();
+  }
+
+  /**
+   * Increases the rate after a successful request.
+   */
+  public synchronized void onSuccess() {
+    final double rate = rateLimiter.getRate();
+    if ( rate < maxRate ) {
+      rateLimiter.setRate(Math.min(maxRate, rate + 1));
+    }
+  }
+
+  /**
+   * Halves the rate and pauses all requests after the repository throttled a request.
+   *
+   * @param retryAfterMillis the time to pause in milliseconds
+   */
+  public synchronized void onThrottled(final long retryAfterMillis) {
+    rateLimiter.setRate(Math.max(minRate, rateLimiter.getRate() / 2));
+    final long pausedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+    pausedUntilNanos.accumulateAndGet(pausedUntil, Math::max);
+  }
+
+  /**
+   * @return the current rate in requests per second
+   */
+  public double getRate() {
+    return rateLimiter.getRate();
+  }
+}
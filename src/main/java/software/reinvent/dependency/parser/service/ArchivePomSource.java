@@ -0,0 +1,212 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.maven.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.apache.commons.lang3.StringUtils.substringAfterLast;
+
+/**
+ * All poms embedded as META-INF/maven/{groupId}/{artifactId}/pom.xml in jars, wars, ears and zips.
+ * <p>
+ * Archives are opened as zip file systems and read in parallel on an own small thread pool while the poms are
+ * consumed. Only a window of twice as many archives as threads is read ahead, so the poms of a few archives are held
+ * in memory, and they are returned in the order of the archives. Archives nested in other archives like the
+ * WEB-INF/lib jars of a war are streamed recursively, so nothing is extracted to disk. An unreadable entry or nested
+ * archive is skipped, the poms read from the rest of the archive are kept.
+ */
+public class ArchivePomSource implements PomSource {
+
+  private static final ImmutableSet<String> ARCHIVE_EXTENSIONS = ImmutableSet.of("jar", "war", "ear", "zip");
+  private static final Pattern EMBEDDED_POM = Pattern.compile("/?META-INF/maven/[^/]+/[^/]+/pom\\.xml");
+
+  private final Logger logger = LoggerFactory.getLogger(ArchivePomSource.class);
+  private final PomReader pomReader;
+  private final File root;
+  private final int threads;
+
+  /**
+   * @param root an archive or a directory where to start the recursive scan of archives
+   */
+  public ArchivePomSource(final File root) {
+    this(root, new PomReader());
+  }
+
+  /**
+   * @param root      an archive or a directory where to start the recursive scan of archives
+   * @param pomReader the reader for all found poms
+   */
+  public ArchivePomSource(final File root, final PomReader pomReader) {
+    this(root, pomReader, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * @param root      an archive or a directory where to start the recursive scan of archives
+   * @param pomReader the reader for all found poms
+   * @param threads   the number of archives read at the same time
+   */
+  public ArchivePomSource(final File root, final PomReader pomReader, final int threads) {
+    this.root = root;
+    this.pomReader = pomReader;
+    this.threads = threads;
+  }
+
+  @Override public Stream<ParsedPom> poms() {
+    logger.info("Scanning archives under {}.", root);
+    final List<Path> archives;
+    try (Stream<Path> paths = Files.walk(root.toPath())) {
+      archives = paths.filter(Files::isRegularFile).filter(path -> isArchive(path.toString())).collect(toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not scan " + root, e);
+    }
+    logger.info("Parsing embedded pom files of {} archives.", archives.size());
+    // idle threads end, so a stream which is not consumed to the end does not leak the pool
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+                                                               threads,
+                                                               1,
+                                                               TimeUnit.SECONDS,
+                                                               new LinkedBlockingQueue<>(),
+                                                               new ThreadFactoryBuilder().setNameFormat("archive-%d")
+                                                                                         .setDaemon(true)
+                                                                                         .build());
+    executor.allowCoreThreadTimeOut(true);
+    final Iterator<List<ParsedPom>> pomsByArchive = new ReadAhead(archives.iterator(), executor);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pomsByArchive, Spliterator.ORDERED), false)
+                        .flatMap(List::stream)
+                        .onClose(executor::shutdownNow);
+  }
+
+  /**
+   * Reads all embedded poms of an archive through a zip file system.
+   */
+  private List<ParsedPom> readArchive(final Path archive) {
+    final List<ParsedPom> poms = Lists.newArrayList();
+    try (FileSystem zip = FileSystems.newFileSystem(archive, (ClassLoader) null);
+         Stream<Path> entries = Files.walk(zip.getPath("/"))) {
+      for (final Path entry : (Iterable<Path>) entries::iterator) {
+        final String name = entry.toString();
+        final String location = archive + "!" + name;
+        try {
+          if ( EMBEDDED_POM.matcher(name).matches() ) {
+            read(entry, location).ifPresent(poms::add);
+          } else if ( isArchive(name) && Files.isRegularFile(entry) ) {
+            try (ZipInputStream nested = new ZipInputStream(Files.newInputStream(entry))) {
+              readNestedArchive(nested, location, poms);
+            }
+          }
+        } catch (IOException e) {
+          logger.error("Could not read {}.", location, e);
+        }
+      }
+    } catch (IOException | UncheckedIOException e) {
+      logger.error("Could not read archive {}, keeping the {} poms read so far.", archive, poms.size(), e);
+    }
+    return poms;
+  }
+
+  /**
+   * Reads all embedded poms of an archive inside an other archive by streaming its entries.
+   */
+  private void readNestedArchive(final ZipInputStream archive, final String location, final List<ParsedPom> poms)
+    throws IOException {
+    ZipEntry entry;
+    while (( entry = archive.getNextEntry() ) != null) {
+      final String name = entry.getName();
+      if ( EMBEDDED_POM.matcher(name).matches() ) {
+        final LocalDateTime fileDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.max(entry.getTime(), 0)),
+                                                               ZoneId.systemDefault());
+        read(ByteStreams.toByteArray(archive), fileDate, location + "!/" + name).ifPresent(poms::add);
+      } else if ( isArchive(name) && !entry.isDirectory() ) {
+        // the outer stream must stay open, so the nested one is not closed
+        try {
+          readNestedArchive(new ZipInputStream(archive), location + "!/" + name, poms);
+        } catch (IOException e) {
+          // the outer stream skips the rest of the broken entry when moving to the next one
+          logger.error("Could not read {}.", location + "!/" + name, e);
+        }
+      }
+    }
+  }
+
+  private Optional<ParsedPom> read(final Path pom, final String location) throws IOException {
+    final LocalDateTime fileDate = LocalDateTime.ofInstant(Files.getLastModifiedTime(pom).toInstant(),
+                                                           ZoneId.systemDefault());
+    try (InputStream input = Files.newInputStream(pom)) {
+      return read(ByteStreams.toByteArray(input), fileDate, location);
+    }
+  }
+
+  private Optional<ParsedPom> read(final byte[] pom, final LocalDateTime fileDate, final String location) {
+    try {
+      final Model model = pomReader.read(pom);
+      return Optional.of(new ParsedPom(model, fileDate, location));
+    } catch (IOException e) {
+      logger.error("Could not parse {}.", location, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Keeps a window of archives being read and returns their poms in the order of the archives.
+   */
+  private class ReadAhead extends AbstractIterator<List<ParsedPom>> {
+    private final Iterator<Path> archives;
+    private final ExecutorService executor;
+    private final Deque<Future<List<ParsedPom>>> window = new ArrayDeque<>();
+
+    private ReadAhead(final Iterator<Path> archives, final ExecutorService executor) {
+      this.archives = archives;
+      this.executor = executor;
+    }
+
+    @Override protected List<ParsedPom> computeNext() {
+      while (window.size() < 2 * threads && archives.hasNext()) {
+        final Path archive = archives.next();
+        window.add(executor.submit(() -> readArchive(archive)));
+      }
+      if ( window.isEmpty() ) {
+        executor.shutdown();
+        return endOfData();
+      }
+      try {
+        return window.poll().get();
+      } catch (ExecutionException e) {
+        logger.error("Could not read an archive under {}.", root, e.getCause());
+        return Collections.emptyList();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        executor.shutdownNow();
+        throw new UncheckedIOException(new InterruptedIOException("Interrupted while reading archives."));
+      }
+    }
+  }
+
+  private static boolean isArchive(final String name) {
+    return ARCHIVE_EXTENSIONS.contains(lowerCase(substringAfterLast(name, ".")));
+  }
+}
@@ -1,35 +1,39 @@
 package software.reinvent.dependency.parser.service;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ning.http.client.AsyncHttpClientConfig;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.filefilter.DirectoryFileFilter;
-import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.libs.ws.WSClient;
-import play.libs.ws.WSRequest;
-import play.libs.ws.WSResponse;
 import play.libs.ws.ning.NingWSClient;
 import software.reinvent.dependency.parser.model.Artifact;
 import software.reinvent.dependency.parser.model.ArtifactDependency;
-import software.reinvent.dependency.parser.model.ArtifactLicense;
 import software.reinvent.dependency.parser.model.ArtifactParent;
+import software.reinvent.dependency.parser.model.DependencyEdge;
+import software.reinvent.dependency.parser.model.DependencyScope;
+import software.reinvent.dependency.parser.model.ParsedPom;
 
 import java.io.File;
-import java.io.IOException;
-import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -40,22 +44,40 @@ import static org.apache.commons.lang3.StringUtils.*;
  * <li>artifact parents</li>
  * <li>artifact dependencies</li>
  * </ul>
- * and methods to parse pom files.
+ * and methods to parse pom files. Use {@link #builder(PomSource)} to configure and run the phases.
  * <p>
  * Created by Leonard Daume on 06.01.2016.
  */
 public class ArtifactDependencyGraph {
 
+  private static final int ENRICHMENT_THREADS = 16;
+  // the discovered poms which are not parsed yet
+  private static final int DISCOVERED_POMS = 64;
+  private static final long POLL_MILLIS = 100;
+
   private final Set<Artifact> artifacts = Sets.newHashSet();
   private final Set<ArtifactParent> artifactParents = Sets.newHashSet();
-  private final Set<ArtifactDependency> artifactDependencies = Sets.newHashSet();
+  private final Map<ArtifactDependency, ArtifactDependency> artifactDependencies = Maps.newHashMap();
+  // the scopes of the dependency management of all parents, the first one wins
+  private final Map<ArtifactDependency, DependencyScope> managedScopes = Maps.newHashMap();
+  // the dependencies which are looked up, all others are test-only dependencies which are not enriched yet
+  private final Set<ArtifactDependency> enrichedDependencies = Sets.newHashSet();
   private final Logger logger = LoggerFactory.getLogger(ArtifactDependencyGraph.class);
-  private final MavenXpp3Reader reader = new MavenXpp3Reader();
-  private final WSClient wsClient = new NingWSClient(new AsyncHttpClientConfig.Builder().build());
+  private final PomSource pomSource;
+  private final GroupIdClassifier notEnrichedGroups;
+  private final ProgressListener progressListener;
+  private final BooleanSupplier cancelled;
+  private final boolean enrich;
+  private final boolean enrichTestScope;
   private final String mavenUri;
+  private final String mavenMetadataUri;
+  private final String mavenRepository;
   private final String mavenUser;
   private final String mavenPassword;
-  private final String mavenRepository;
+  private final WSClient sharedWsClient;
+  private final ExecutorService discoveryExecutor;
+  private final ExecutorService enrichmentExecutor;
+  private EnrichmentPipeline enrichmentPipeline;
 
   /**
    * Starting point for the complete dependency graph. The poms will be parsed to create the graph.
@@ -71,124 +93,237 @@ public class ArtifactDependencyGraph {
                                  final String mavenUser,
                                  final String mavenPassword,
                                  final String mavenRepository) {
-    this.mavenUri = mavenUri;
-    this.mavenUser = mavenUser;
-    this.mavenPassword = mavenPassword;
-    this.mavenRepository = mavenRepository;
-
-    final List<File> pomFiles = findAllPomFiles(rootDir);
-    parsePomFiles(pomFiles);
+    this(new DirectoryPomSource(rootDir), mavenUri, mavenUser, mavenPassword, mavenRepository);
   }
 
-  public Set<Artifact> getAllArtifacts() {
-    return artifacts;
+  /**
+   * Starting point for the complete dependency graph. The poms of the source will be parsed to create the graph.
+   *
+   * @param pomSource       the source of all pom files like a directory or a git repository
+   * @param mavenUri        a specific maven repository URI to parse licenses and versions in remote pom files
+   * @param mavenUser       the maven repository username
+   * @param mavenPassword   the maven repository password
+   * @param mavenRepository repository that the artifact is contained in like central
+   */
+  public ArtifactDependencyGraph(final PomSource pomSource,
+                                 final String mavenUri,
+                                 final String mavenUser,
+                                 final String mavenPassword,
+                                 final String mavenRepository) {
+    this(pomSource,
+         mavenUri,
+         VersionResolver.nexusContentUri(mavenUri, mavenRepository),
+         mavenUser,
+         mavenPassword,
+         mavenRepository);
   }
 
-  private ArrayList<File> findAllPomFiles(final File rootDir) {
-    logger.info("Scanning pom files under {}.", rootDir.toString());
-    return Lists.newArrayList(FileUtils.listFiles(rootDir,
-                                                  FileFilterUtils.nameFileFilter("pom.xml"),
-                                                  DirectoryFileFilter.DIRECTORY));
+  /**
+   * Starting point for the complete dependency graph. The poms of the source will be parsed to create the graph.
+   *
+   * @param pomSource        the source of all pom files like a directory or a git repository
+   * @param mavenUri         a specific maven repository URI to parse licenses and versions in remote pom files
+   * @param mavenMetadataUri the content URI of the maven repository to read maven-metadata.xml files from
+   * @param mavenUser        the maven repository username
+   * @param mavenPassword    the maven repository password
+   * @param mavenRepository  repository that the artifact is contained in like central
+   */
+  public ArtifactDependencyGraph(final PomSource pomSource,
+                                 final String mavenUri,
+                                 final String mavenMetadataUri,
+                                 final String mavenUser,
+                                 final String mavenPassword,
+                                 final String mavenRepository) {
+    this(pomSource, GroupIdClassifier.NONE, mavenUri, mavenMetadataUri, mavenUser, mavenPassword, mavenRepository);
   }
 
   /**
-   * Transforms pom files to
-   * {@link Model}s and adds them to the dependency graph with all found licenses if the {@link #mavenUri} is
-   * available.
+   * Starting point for the complete dependency graph. The poms of the source will be parsed to create the graph.
    *
-   * @param pomFiles all pom files to add
+   * @param pomSource         the source of all pom files like a directory or a git repository
+   * @param notEnrichedGroups the groups which are not looked up in the maven repository, like the internal ones
+   * @param mavenUri          a specific maven repository URI to parse licenses and versions in remote pom files
+   * @param mavenMetadataUri  the content URI of the maven repository to read maven-metadata.xml files from
+   * @param mavenUser         the maven repository username
+   * @param mavenPassword     the maven repository password
+   * @param mavenRepository   repository that the artifact is contained in like central
    */
-  private void parsePomFiles(final List<File> pomFiles) {
-    logger.info("Parsing {} pom files.", pomFiles.size());
+  public ArtifactDependencyGraph(final PomSource pomSource,
+                                 final GroupIdClassifier notEnrichedGroups,
+                                 final String mavenUri,
+                                 final String mavenMetadataUri,
+                                 final String mavenUser,
+                                 final String mavenPassword,
+                                 final String mavenRepository) {
+    this(builder(pomSource).notEnrichedGroups(notEnrichedGroups)
+                           .repository(mavenUri, mavenRepository, mavenUser, mavenPassword)
+                           .metadataUri(mavenMetadataUri), () -> false);
     try {
-      final List<Model> models = pomFiles.stream().map(file -> {
-        try {
-          final Model pom = reader.read(FileUtils.openInputStream(file));
-          pom.setPomFile(file);
-          return pom;
-        } catch (Exception e) {
-          throw new RuntimeException(e);
-        }
-      }).collect(Collectors.toList());
-      models.forEach(this::addPom);
-      if ( isNoneBlank(mavenUri) ) {
-        addLicensesAndDescriptions();
-      }
-    } catch (Exception e) {
-      logger.error("Could not parse poms.", e);
+      build();
+    } catch (CancellationException e) {
+      logger.warn("The graph was cancelled.", e);
     }
   }
 
+  private ArtifactDependencyGraph(final Builder builder, final BooleanSupplier cancelled) {
+    this.pomSource = builder.pomSource;
+    this.notEnrichedGroups = builder.notEnrichedGroups;
+    this.progressListener = builder.progressListener;
+    this.cancelled = () -> builder.cancelled.getAsBoolean() || cancelled.getAsBoolean();
+    this.enrich = builder.enrich && isNoneBlank(builder.mavenUri);
+    this.enrichTestScope = builder.enrichTestScope;
+    this.mavenUri = builder.mavenUri;
+    this.mavenRepository = builder.mavenRepository;
+    this.mavenMetadataUri = isBlank(builder.mavenMetadataUri) && enrich
+                            ? VersionResolver.nexusContentUri(mavenUri, mavenRepository)
+                            : builder.mavenMetadataUri;
+    this.mavenUser = builder.mavenUser;
+    this.mavenPassword = builder.mavenPassword;
+    this.sharedWsClient = builder.wsClient;
+    this.discoveryExecutor = builder.discoveryExecutor;
+    this.enrichmentExecutor = builder.enrichmentExecutor;
+  }
+
   /**
-   * Adds the licenses and descriptions by propagating all available versions as well as the LATEST and RELEASE
-   * version.
+   * Creates a builder which configures the phases of a graph. Nothing is read before {@link Builder#build()}.
+   *
+   * @param pomSource the source of all pom files like a directory or a git repository
+   *
+   * @return the builder
    */
-  private void addLicensesAndDescriptions() {
-    logger.info("Adding licenses and descriptions from {} in the repository: {}.", mavenUri, mavenRepository);
-    artifactDependencies.parallelStream().forEach(dependency -> {
-      try {
-        final List<String> versions = Lists.newArrayList("LATEST", "RELEASE");
-        versions.addAll(dependency.getVersions());
-        dependency.getVersions().forEach(version -> {
-          try {
-            addDependencyMetadata(dependency, version);
-          } catch (Exception e) {
-            logger.error("Could not load pom for {}.", dependency, e);
-          }
-        });
-      } catch (Exception e) {
-        logger.error("Could not add licenses.", e);
+  public static Builder builder(final PomSource pomSource) {
+    return new Builder(pomSource);
+  }
+
+  public Set<Artifact> getAllArtifacts() {
+    return artifacts;
+  }
+
+  /**
+   * Discovers the poms of the {@link #pomSource}, parses them and adds them to the dependency graph with all found
+   * licenses if the {@link #mavenUri} is available. The poms are discovered on the {@link #discoveryExecutor} ahead
+   * of the calling thread which adds them to the graph, the licenses are looked up by the {@link EnrichmentPipeline}
+   * while the poms are still parsed. The http client is only created if lookups are made and none is shared.
+   * <p>
+   * Interrupting the calling thread cancels the build, the discovery and the pending lookups are interrupted then.
+   *
+   * @throws CancellationException if the build was cancelled
+   */
+  private void build() {
+    WSClient ownWsClient = null;
+    ExecutorService ownDiscoveryExecutor = null;
+    Future<?> discovery = null;
+    try {
+      if ( enrich ) {
+        logger.info("Adding licenses and descriptions from {} in the repository: {}.", mavenUri, mavenRepository);
+        if ( sharedWsClient == null ) {
+          ownWsClient = new NingWSClient(new AsyncHttpClientConfig.Builder().build());
+        }
+        final RepositoryClient repositoryClient = new RepositoryClient(sharedWsClient == null
+                                                                       ? ownWsClient
+                                                                       : sharedWsClient, mavenUser, mavenPassword);
+        final VersionResolver versionResolver = new VersionResolver(repositoryClient, mavenMetadataUri);
+        final DependencyEnricher enricher = new DependencyEnricher(repositoryClient,
+                                                                   versionResolver,
+                                                                   mavenUri,
+                                                                   mavenRepository);
+        enrichmentPipeline = enrichmentExecutor == null
+                             ? new EnrichmentPipeline(enricher, ENRICHMENT_THREADS, progressListener)
+                             : new EnrichmentPipeline(enricher, enrichmentExecutor, progressListener);
       }
-    });
+      progressListener.onPhase(ProgressListener.Phase.DISCOVER);
+      if ( discoveryExecutor == null ) {
+        ownDiscoveryExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(
+          "pom-discovery-%d").setDaemon(true).build());
+      }
+      final BlockingQueue<ParsedPom> discoveredPoms = new ArrayBlockingQueue<>(DISCOVERED_POMS);
+      discovery = ( discoveryExecutor == null ? ownDiscoveryExecutor : discoveryExecutor ).submit(() -> {
+        discover(discoveredPoms);
+        return null;
+      });
+      progressListener.onPhase(ProgressListener.Phase.PARSE);
+      int parsedPoms = 0;
+      while (!isCancelled()) {
+        final ParsedPom pom = discoveredPoms.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if ( pom != null ) {
+          addPom(pom);
+          progressListener.onPomParsed(pom, ++parsedPoms);
+        } else if ( discovery.isDone() && discoveredPoms.isEmpty() ) {
+          break;
+        }
+      }
+      if ( isCancelled() ) {
+        throw new CancellationException("The graph was cancelled after " + parsedPoms + " poms.");
+      }
+      // rethrows the failure of the discovery
+      discovery.get();
+      resolveManagedScopes();
+      if ( enrichmentPipeline != null ) {
+        progressListener.onPhase(ProgressListener.Phase.ENRICH);
+        // dependencies without any version after all poms were added are looked up as RELEASE
+        artifactDependencies.keySet()
+                            .stream()
+                            .filter(dependency -> dependency.getVersions().isEmpty())
+                            .filter(enrichedDependencies::contains)
+                            .forEach(dependency -> enrichmentPipeline.submit(dependency, VersionResolver.RELEASE));
+        enrichmentPipeline.awaitCompletion(cancelled);
+      }
+      progressListener.onPhase(ProgressListener.Phase.DONE);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("The graph was interrupted.");
+    } catch (Exception e) {
+      logger.error("Could not parse poms.", e);
+    } finally {
+      if ( discovery != null ) {
+        discovery.cancel(true);
+      }
+      if ( ownDiscoveryExecutor != null ) {
+        ownDiscoveryExecutor.shutdownNow();
+      }
+      if ( enrichmentPipeline != null ) {
+        enrichmentPipeline.close();
+        enrichmentPipeline = null;
+      }
+      if ( ownWsClient != null ) {
+        ownWsClient.close();
+      }
+    }
   }
 
   /**
-   * Adds the license and description to a {@link ArtifactDependency} by downloading a single version of a pom file
-   * from a remote maven repository.
+   * Hands the poms of the {@link #pomSource} to the parse phase until all are discovered or the discovery is
+   * interrupted. The stream of the source is closed afterwards.
    *
-   * @param dependency the dependency where to add the data
-   * @param version    the version of the artifact
+   * @param discoveredPoms the poms which are not parsed yet, blocks the discovery if it is full
    *
-   * @throws IOException
-   * @throws XmlPullParserException
+   * @throws InterruptedException if the discovery was interrupted
    */
-  private void addDependencyMetadata(final ArtifactDependency dependency, final String version)
-    throws IOException, XmlPullParserException {
-    final WSRequest wsRequest = wsClient.url(mavenUri)
-                                        .setQueryParameter("p", "pom")
-                                        .setQueryParameter("r", mavenRepository)
-                                        .setQueryParameter("v", version)
-                                        .setQueryParameter("g", dependency.getGroupId())
-                                        .setQueryParameter("a", dependency.getArtifactId())
-                                        .setFollowRedirects(true);
-    if ( isNoneBlank(mavenUser, mavenPassword) ) {
-      wsRequest.setAuth(mavenUser, mavenPassword);
-    }
-    final WSResponse wsResponse = wsRequest.get().get(3000);
-    if ( wsResponse.getStatus() == 200 ) {
-      final String body = IOUtils.toString(wsResponse.getBodyAsStream());
-      if ( !containsIgnoreCase(body, "</html>") ) {
-        final Model model = reader.read(IOUtils.toInputStream(body));
-        dependency.addDescription(defaultIfBlank(model.getDescription(), dependency.getDescription()));
-        dependency.getArtifactLicenses()
-                  .addAll(model.getLicenses()
-                               .stream()
-                               .map(license -> new ArtifactLicense(license.getName(), license.getUrl()))
-                               .collect(Collectors.toList()));
+  private void discover(final BlockingQueue<ParsedPom> discoveredPoms) throws InterruptedException {
+    try (Stream<ParsedPom> poms = pomSource.poms()) {
+      final Iterator<ParsedPom> iterator = poms.iterator();
+      while (!Thread.currentThread().isInterrupted() && iterator.hasNext()) {
+        discoveredPoms.put(iterator.next());
       }
     }
   }
 
+  private boolean isCancelled() {
+    return cancelled.getAsBoolean() || Thread.currentThread().isInterrupted();
+  }
+
   /**
-   * Adds a {@link Model} as {@link ArtifactParent} or {@link Artifact}.
+   * Adds a {@link ParsedPom} as {@link ArtifactParent} or {@link Artifact}.
    *
-   * @param model the model to add
+   * @param pom the pom to add
    */
-  private void addPom(Model model) {
-    if ( StringUtils.equalsIgnoreCase(model.getPackaging(), "pom") ) {
-      addParent(model);
+  private void addPom(final ParsedPom pom) {
+    if ( StringUtils.equalsIgnoreCase(pom.getModel().getPackaging(), "pom") ) {
+      addParent(pom.getModel(), pom.getFileDate());
     } else {
-      addArtifact(model);
+      addArtifact(pom.getModel(), pom.getFileDate());
     }
   }
 
@@ -196,20 +331,23 @@ public class ArtifactDependencyGraph {
    * Adds a model as {@link ArtifactParent}. Parses especially the managed dependencies to make sure that the
    * dependencies which are child of the parent will contain the versions.
    *
-   * @param parent the model to add
+   * @param parent   the model to add
+   * @param fileDate the date of the pom file
    */
-  private void addParent(final Model parent) {
+  private void addParent(final Model parent, final LocalDateTime fileDate) {
     final Properties properties = parent.getProperties();
-    final List<Dependency> managedDependencies = parent.getDependencyManagement().getDependencies();
+    final List<Dependency> managedDependencies = parent.getDependencyManagement() == null
+                                                 ? Lists.newArrayList()
+                                                 : parent.getDependencyManagement().getDependencies();
     setVersionToDepencies(parent, managedDependencies);
-    addDependencies(managedDependencies);
-    final ArtifactParent artifactParent = new ArtifactParent(parent.getGroupId(),
-                                                             parent.getArtifactId(),
-                                                             parent.getVersion(),
-                                                             LocalDateTime.ofInstant(Instant.ofEpochMilli(parent
-                                                                                                            .getPomFile()
-                                                                                                                .lastModified()),
-                                                                                     ZoneId.systemDefault()));
+    addDependencies(managedDependencies).forEach(edge -> {
+      if ( edge.isScopeDeclared() ) {
+        managedScopes.putIfAbsent(edge.getDependency(), edge.getScope());
+      }
+    });
+    final String groupId = parent.getGroupId() == null ? parent.getParent().getGroupId() : parent.getGroupId();
+    final String version = parent.getVersion() == null ? parent.getParent().getVersion() : parent.getVersion();
+    final ArtifactParent artifactParent = new ArtifactParent(groupId, parent.getArtifactId(), version, fileDate);
     if ( artifactParents.contains(artifactParent) ) {
       artifactParents.stream().filter(x -> x.equals(artifactParent)).findFirst().ifPresent(x -> {
         if ( x.getFileDate().isBefore(artifactParent.getFileDate()) ) {
@@ -238,13 +376,14 @@ public class ArtifactDependencyGraph {
   /**
    * Adds a non parent {@link Model} as {@link Artifact}.
    *
-   * @param model the model to parse
+   * @param model    the model to parse
+   * @param fileDate the date of the pom file
    */
-  private void addArtifact(final Model model) {
+  private void addArtifact(final Model model, final LocalDateTime fileDate) {
     final Properties properties = model.getProperties();
     final List<Dependency> dependencies = model.getDependencies();
     setVersionToDepencies(model, dependencies);
-    final Set<ArtifactDependency> artifactDependencies = addDependencies(dependencies);
+    final List<DependencyEdge> dependencyEdges = addDependencies(dependencies);
 
     final String groupId = model.getGroupId() == null ? model.getParent().getGroupId() : model.getGroupId();
 
@@ -253,52 +392,302 @@ public class ArtifactDependencyGraph {
                                      model.getArtifactId(),
                                      model.getVersion(),
                                      model.getPackaging(),
-                                     LocalDateTime.ofInstant(Instant.ofEpochMilli(model.getPomFile().lastModified()),
-                                                             ZoneId.systemDefault()),
+                                     fileDate,
                                      artifactParent);
     if ( artifacts.contains(artifact) ) {
       artifacts.stream().filter(x -> x.equals(artifact)).findFirst().ifPresent(x -> {
         if ( x.getFileDate().isBefore(artifact.getFileDate()) ) {
           artifacts.remove(artifact);
         } else {
-          x.getDependencies().addAll(artifactDependencies);
+          x.addDependencyEdges(dependencyEdges);
         }
       });
-      artifact.getDependencies().addAll(artifactDependencies);
+      artifact.addDependencyEdges(dependencyEdges);
       artifacts.add(artifact);
     } else {
-      artifact.getDependencies().addAll(artifactDependencies);
+      artifact.addDependencyEdges(dependencyEdges);
       artifacts.add(artifact);
     }
   }
 
   /**
    * Transforms {@link Dependency}s to {@link ArtifactDependency}s and adds them to the {@link #artifactDependencies}.
+   * Every new version of a dependency is queued for enrichment right away, unless its group is not enriched or it is
+   * only used in the test scope and test dependencies are not enriched.
    *
    * @param dependencies the dependencies to add
    *
-   * @return all added {@link ArtifactDependency}s
+   * @return the edges to all added {@link ArtifactDependency}s
    */
-  private Set<ArtifactDependency> addDependencies(final List<Dependency> dependencies) {
-    Set<ArtifactDependency> addedDependencies = Sets.newHashSet();
-    dependencies.stream().forEach(dependency -> {
+  private List<DependencyEdge> addDependencies(final List<Dependency> dependencies) {
+    final List<DependencyEdge> addedEdges = Lists.newArrayListWithCapacity(dependencies.size());
+    dependencies.forEach(dependency -> {
       final ArtifactDependency artifactDependencyToAdd = new ArtifactDependency(dependency.getGroupId(),
                                                                                 dependency.getArtifactId(),
-
                                                                                 dependency.getVersion());
-      if ( artifactDependencies.contains(artifactDependencyToAdd) ) {
-        artifactDependencies.stream()
-                            .filter(artifactDependency -> artifactDependency.equals(artifactDependencyToAdd))
-                            .findAny()
-                            .ifPresent(optionalArtifactDependency -> {
-                              optionalArtifactDependency.addVersions(artifactDependencyToAdd.getVersions());
-                              addedDependencies.add(optionalArtifactDependency);
-                            });
+      final ArtifactDependency existingDependency = artifactDependencies.get(artifactDependencyToAdd);
+      final ArtifactDependency addedDependency;
+      final Set<String> newVersions;
+      if ( existingDependency != null ) {
+        newVersions = Sets.newHashSet(Sets.difference(artifactDependencyToAdd.getVersions(),
+                                                      existingDependency.getVersions()));
+        existingDependency.addVersions(newVersions);
+        addedDependency = existingDependency;
       } else {
-        artifactDependencies.add(artifactDependencyToAdd);
-        addedDependencies.add(artifactDependencyToAdd);
+        newVersions = artifactDependencyToAdd.getVersions();
+        artifactDependencies.put(artifactDependencyToAdd, artifactDependencyToAdd);
+        addedDependency = artifactDependencyToAdd;
+      }
+      final DependencyEdge edge = new DependencyEdge(addedDependency,
+                                                     scopeOf(dependency, addedDependency),
+                                                     isNotBlank(dependency.getScope()),
+                                                     dependency.getClassifier(),
+                                                     dependency.getType(),
+                                                     dependency.isOptional());
+      addedEdges.add(edge);
+      if ( enrichmentPipeline != null && !notEnrichedGroups.matches(dependency.getGroupId()) ) {
+        if ( edge.getScope() == DependencyScope.TEST && !enrichTestScope
+             && !enrichedDependencies.contains(addedDependency) ) {
+          logger.debug("Skipping the lookup of the test dependency {}.", addedDependency);
+        } else if ( enrichedDependencies.add(addedDependency) ) {
+          // all versions, a test-only dependency may have been skipped before
+          addedDependency.getVersions().forEach(version -> enrichmentPipeline.submit(addedDependency, version));
+        } else {
+          newVersions.forEach(version -> enrichmentPipeline.submit(addedDependency, version));
+        }
       }
     });
-    return addedDependencies;
+    return addedEdges;
+  }
+
+  /**
+   * @return the declared scope, the managed scope of the parents parsed so far or compile
+   */
+  private DependencyScope scopeOf(final Dependency dependency, final ArtifactDependency artifactDependency) {
+    if ( isNotBlank(dependency.getScope()) ) {
+      try {
+        return DependencyScope.parse(dependency.getScope());
+      } catch (IllegalArgumentException e) {
+        logger.warn("Unknown scope {} of {}, using compile.", dependency.getScope(), artifactDependency);
+        return DependencyScope.COMPILE;
+      }
+    }
+    return managedScopes.getOrDefault(artifactDependency, DependencyScope.COMPILE);
+  }
+
+  /**
+   * Moves the edges without a declared scope to the managed scope, as the parent may have been parsed after the
+   * artifact, and collects the scopes of every dependency.
+   */
+  private void resolveManagedScopes() {
+    artifacts.forEach(artifact -> {
+      artifact.getDependencyEdges()
+              .stream()
+              .filter(edge -> !edge.isScopeDeclared())
+              .forEach(edge -> {
+                final DependencyScope managedScope = managedScopes.getOrDefault(edge.getDependency(),
+                                                                                DependencyScope.COMPILE);
+                if ( managedScope != edge.getScope() ) {
+                  artifact.replaceDependencyEdge(edge, edge.withManagedScope(managedScope));
+                }
+              });
+      artifact.getDependencyEdges().forEach(edge -> edge.getDependency().addScope(edge.getScope()));
+    });
+  }
+
+  /**
+   * Configures the phases of an {@link ArtifactDependencyGraph}. Without a repository the graph is built without any
+   * lookups.
+   */
+  public static class Builder {
+    private final PomSource pomSource;
+    private GroupIdClassifier notEnrichedGroups = GroupIdClassifier.NONE;
+    private ProgressListener progressListener = ProgressListener.NONE;
+    private BooleanSupplier cancelled = () -> false;
+    private boolean enrich = true;
+    private boolean enrichTestScope = true;
+    private String mavenUri;
+    private String mavenMetadataUri;
+    private String mavenRepository;
+    private String mavenUser = EMPTY;
+    private String mavenPassword = EMPTY;
+    private WSClient wsClient;
+    private ExecutorService discoveryExecutor;
+    private ExecutorService enrichmentExecutor;
+
+    private Builder(final PomSource pomSource) {
+      this.pomSource = pomSource;
+    }
+
+    /**
+     * Enables the lookup of licenses and descriptions in a remote repository.
+     *
+     * @param mavenUri        a specific maven repository URI to parse licenses and versions in remote pom files
+     * @param mavenRepository repository that the artifact is contained in like central
+     * @param mavenUser       the maven repository username
+     * @param mavenPassword   the maven repository password
+     *
+     * @return this builder
+     */
+    public Builder repository(final String mavenUri,
+                              final String mavenRepository,
+                              final String mavenUser,
+                              final String mavenPassword) {
+      this.mavenUri = mavenUri;
+      this.mavenRepository = mavenRepository;
+      this.mavenUser = mavenUser;
+      this.mavenPassword = mavenPassword;
+      return this;
+    }
+
+    /**
+     * @param mavenMetadataUri the content URI of the maven repository to read maven-metadata.xml files from, the
+     *                         content URI of a Nexus is used if blank
+     *
+     * @return this builder
+     */
+    public Builder metadataUri(final String mavenMetadataUri) {
+      this.mavenMetadataUri = mavenMetadataUri;
+      return this;
+    }
+
+    /**
+     * Skips all lookups, even if a repository is configured.
+     *
+     * @return this builder
+     */
+    public Builder withoutEnrichment() {
+      this.enrich = false;
+      return this;
+    }
+
+    /**
+     * @param enrichTestScope false, to skip the lookup of dependencies which are only used in the test scope
+     *
+     * @return this builder
+     */
+    public Builder enrichTestScope(final boolean enrichTestScope) {
+      this.enrichTestScope = enrichTestScope;
+      return this;
+    }
+
+    /**
+     * @param notEnrichedGroups the groups which are not looked up in the maven repository, like the internal ones
+     *
+     * @return this builder
+     */
+    public Builder notEnrichedGroups(final GroupIdClassifier notEnrichedGroups) {
+      this.notEnrichedGroups = notEnrichedGroups;
+      return this;
+    }
+
+    /**
+     * @param wsClient the http client to share between several graphs, it is not closed by the graph
+     *
+     * @return this builder
+     */
+    public Builder wsClient(final WSClient wsClient) {
+      this.wsClient = wsClient;
+      return this;
+    }
+
+    /**
+     * @param discoveryExecutor the executor which discovers and reads the poms of the source ahead of the parse phase
+     *                          instead of an own thread, it is not shut down by the graph
+     *
+     * @return this builder
+     */
+    public Builder discoveryExecutor(final ExecutorService discoveryExecutor) {
+      this.discoveryExecutor = discoveryExecutor;
+      return this;
+    }
+
+    /**
+     * @param enrichmentExecutor the executor of the lookups instead of an own thread pool, it is not shut down by
+     *                           the graph
+     *
+     * @return this builder
+     */
+    public Builder enrichmentExecutor(final ExecutorService enrichmentExecutor) {
+      this.enrichmentExecutor = enrichmentExecutor;
+      return this;
+    }
+
+    /**
+     * @param progressListener is notified about the phases, every parsed pom and every lookup
+     *
+     * @return this builder
+     */
+    public Builder progressListener(final ProgressListener progressListener) {
+      this.progressListener = progressListener;
+      return this;
+    }
+
+    /**
+     * @param cancelled is checked after every pom, while waiting for the next discovered pom and while waiting for the
+     *                  lookups
+     *
+     * @return this builder
+     */
+    public Builder cancelWhen(final BooleanSupplier cancelled) {
+      this.cancelled = cancelled;
+      return this;
+    }
+
+    /**
+     * Runs the parse phase on the calling thread, the discovery and the lookups run on their executors. Interrupting
+     * the thread cancels the build as well.
+     *
+     * @return the complete graph
+     *
+     * @throws CancellationException if the build was cancelled
+     */
+    public ArtifactDependencyGraph build() {
+      final ArtifactDependencyGraph graph = new ArtifactDependencyGraph(this, () -> false);
+      graph.build();
+      return graph;
+    }
+
+    /**
+     * Runs the parse phase on the given executor, the discovery and the lookups run on their executors. Cancelling
+     * the returned future interrupts all running phases.
+     *
+     * @param executor the executor to parse the poms on
+     *
+     * @return the graph, completed exceptionally with a {@link CancellationException} if the build was cancelled
+     */
+    public CompletableFuture<ArtifactDependencyGraph> buildAsync(final Executor executor) {
+      final CompletableFuture<ArtifactDependencyGraph> result = new CompletableFuture<>();
+      final AtomicReference<Thread> parseThread = new AtomicReference<>();
+      final ArtifactDependencyGraph graph = new ArtifactDependencyGraph(this, result::isCancelled);
+      executor.execute(() -> {
+        parseThread.set(Thread.currentThread());
+        try {
+          if ( !result.isCancelled() ) {
+            graph.build();
+            result.complete(graph);
+          }
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        } finally {
+          synchronized (parseThread) {
+            parseThread.set(null);
+            // an interrupt after the build must not reach the next task of the executor
+            Thread.interrupted();
+          }
+        }
+      });
+      result.whenComplete((completedGraph, e) -> {
+        if ( result.isCancelled() ) {
+          synchronized (parseThread) {
+            final Thread thread = parseThread.get();
+            if ( thread != null ) {
+              thread.interrupt();
+            }
+          }
+        }
+      });
+      return result;
+    }
   }
 }
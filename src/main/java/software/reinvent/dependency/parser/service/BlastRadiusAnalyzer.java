@@ -0,0 +1,253 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.BlastRadius;
+import software.reinvent.dependency.parser.model.DependencyScope;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks every artifact and dependency by its blast radius: the number of direct dependents, the number of transitive
+ * dependents and the PageRank over the edges from the artifacts to their dependencies.
+ * <p>
+ * The graph is stored in primitive arrays in compressed sparse row format, forwards and backwards. The transitive
+ * dependents are counted by a breadth first search from every artifact through its dependency closure, so the work
+ * is proportional to the size of all closures instead of the square of the graph size. The searches run in parallel
+ * with one set of counters per thread. The PageRank iterations pull the rank of the dependents of every node in
+ * parallel until the ranks converge.
+ */
+public class BlastRadiusAnalyzer {
+
+  private static final double DAMPING = 0.85;
+  private static final double TOLERANCE = 1e-10;
+  private static final int MAX_ITERATIONS = 100;
+  private static final int CHUNK_SIZE = 64;
+  static final Comparator<BlastRadius> RANK_ORDER = Comparator.comparingInt(BlastRadius::getTransitiveDependents)
+                                                              .thenComparingDouble(BlastRadius::getPageRank)
+                                                              .thenComparingInt(BlastRadius::getDirectDependents)
+                                                              .reversed()
+                                                              .thenComparing(BlastRadius::getGroupId)
+                                                              .thenComparing(BlastRadius::getArtifactId);
+
+  private final Logger logger = LoggerFactory.getLogger(BlastRadiusAnalyzer.class);
+
+  /**
+   * @param artifacts the artifacts with their dependencies of all scopes
+   *
+   * @return the blast radius of every artifact and dependency, the biggest first
+   */
+  public List<BlastRadius> analyze(final Collection<Artifact> artifacts) {
+    return analyze(artifacts, EnumSet.allOf(DependencyScope.class));
+  }
+
+  /**
+   * @param artifacts the artifacts
+   * @param scopes    the scopes of the dependencies to follow
+   *
+   * @return the blast radius of every artifact and dependency, the biggest first
+   */
+  public List<BlastRadius> analyze(final Collection<Artifact> artifacts, final Set<DependencyScope> scopes) {
+    final long start = System.nanoTime();
+    final Artifact[] sources = artifacts.toArray(new Artifact[artifacts.size()]);
+    Arrays.sort(sources, ReportGenerator.ARTIFACT_ORDER);
+    final int sourceCount = sources.length;
+
+    // the artifacts are the first nodes, the dependencies which are no artifacts follow
+    final Map<String, Integer> nodeIndex = Maps.newHashMapWithExpectedSize(sourceCount * 4);
+    final List<String> groupIds = Lists.newArrayListWithCapacity(sourceCount * 4);
+    final List<String> artifactIds = Lists.newArrayListWithCapacity(sourceCount * 4);
+    for (final Artifact source : sources) {
+      nodeIndex.put(source.getGroupId() + ":" + source.getArtifactId(), groupIds.size());
+      groupIds.add(source.getGroupId());
+      artifactIds.add(source.getArtifactId());
+    }
+    final int[] offsets = new int[sourceCount + 1];
+    int[] targets = new int[Math.max(sourceCount, 16)];
+    // the last source + 1 with an edge to a node, a dependency declared twice by a source is one edge
+    int[] lastSources = new int[Math.max(sourceCount * 4, 16)];
+    int edgeCount = 0;
+    for (int i = 0; i < sourceCount; i++) {
+      offsets[i] = edgeCount;
+      for (final ArtifactDependency dependency : sources[i].getDependencies(scopes)) {
+        final String coordinates = dependency.getGroupId() + ":" + dependency.getArtifactId();
+        Integer target = nodeIndex.get(coordinates);
+        if ( target == null ) {
+          target = groupIds.size();
+          nodeIndex.put(coordinates, target);
+          groupIds.add(dependency.getGroupId());
+          artifactIds.add(dependency.getArtifactId());
+          if ( target == lastSources.length ) {
+            lastSources = Arrays.copyOf(lastSources, lastSources.length * 2);
+          }
+        }
+        if ( target != i && lastSources[target] != i + 1 ) {
+          lastSources[target] = i + 1;
+          if ( edgeCount == targets.length ) {
+            targets = Arrays.copyOf(targets, targets.length * 2);
+          }
+          targets[edgeCount++] = target;
+        }
+      }
+    }
+    offsets[sourceCount] = edgeCount;
+    final int nodeCount = groupIds.size();
+
+    // the edges from a node to its dependents
+    final int[] reverseOffsets = new int[nodeCount + 1];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      reverseOffsets[targets[edge] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      reverseOffsets[node + 1] += reverseOffsets[node];
+    }
+    final int[] dependents = new int[edgeCount];
+    final int[] fill = Arrays.copyOf(reverseOffsets, nodeCount);
+    for (int source = 0; source < sourceCount; source++) {
+      for (int edge = offsets[source]; edge < offsets[source + 1]; edge++) {
+        dependents[fill[targets[edge]]++] = source;
+      }
+    }
+
+    final int[] forwardTargets = targets;
+    // one counter per thread, the threads take the next chunk of artifacts until all are searched
+    final AtomicInteger nextSource = new AtomicInteger();
+    final int[] transitiveDependents = IntStream.range(0, Runtime.getRuntime().availableProcessors())
+                                                .parallel()
+                                                .mapToObj(thread -> {
+                                                  final ClosureCounter counter = new ClosureCounter(nodeCount,
+                                                                                                    sourceCount,
+                                                                                                    offsets,
+                                                                                                    forwardTargets);
+                                                  int chunk;
+                                                  while (( chunk = nextSource.getAndAdd(CHUNK_SIZE) )
+                                                         < sourceCount) {
+                                                    final int end = Math.min(sourceCount, chunk + CHUNK_SIZE);
+                                                    for (int source = chunk; source < end; source++) {
+                                                      counter.count(source);
+                                                    }
+                                                  }
+                                                  return counter;
+                                                })
+                                                .reduce(ClosureCounter::merge)
+                                                .get().counts;
+    final double[] pageRank = pageRank(nodeCount, sourceCount, offsets, reverseOffsets, dependents);
+
+    final List<BlastRadius> blastRadii = Lists.newArrayListWithCapacity(nodeCount);
+    for (int node = 0; node < nodeCount; node++) {
+      blastRadii.add(new BlastRadius(groupIds.get(node),
+                                     artifactIds.get(node),
+                                     reverseOffsets[node + 1] - reverseOffsets[node],
+                                     transitiveDependents[node],
+                                     pageRank[node]));
+    }
+    blastRadii.sort(RANK_ORDER);
+    logger.info("Ranked {} nodes with {} dependencies in {} ms.",
+                nodeCount,
+                edgeCount,
+                ( System.nanoTime() - start ) / 1_000_000);
+    return blastRadii;
+  }
+
+  /**
+   * Computes the PageRank by power iteration. Only artifacts have outgoing edges, the rank of all other nodes is
+   * spread evenly over the graph in the next iteration.
+   */
+  private double[] pageRank(final int nodeCount,
+                            final int sourceCount,
+                            final int[] offsets,
+                            final int[] reverseOffsets,
+                            final int[] dependents) {
+    double[] rank = new double[nodeCount];
+    double[] next = new double[nodeCount];
+    final double[] share = new double[sourceCount];
+    Arrays.fill(rank, 1d / nodeCount);
+    int iteration = 0;
+    double delta = 1;
+    while (iteration < MAX_ITERATIONS && delta > TOLERANCE) {
+      final double[] current = rank;
+      final double[] updated = next;
+      IntStream.range(0, sourceCount).parallel().forEach(source -> {
+        final int outDegree = offsets[source + 1] - offsets[source];
+        share[source] = outDegree == 0 ? 0 : current[source] / outDegree;
+      });
+      final double danglingRank = IntStream.range(0, nodeCount)
+                                           .parallel()
+                                           .filter(node -> node >= sourceCount || offsets[node + 1] == offsets[node])
+                                           .mapToDouble(node -> current[node])
+                                           .sum();
+      final double base = ( 1 - DAMPING + DAMPING * danglingRank ) / nodeCount;
+      delta = IntStream.range(0, nodeCount).parallel().mapToDouble(node -> {
+        double sum = 0;
+        for (int edge = reverseOffsets[node]; edge < reverseOffsets[node + 1]; edge++) {
+          sum += share[dependents[edge]];
+        }
+        updated[node] = base + DAMPING * sum;
+        return Math.abs(updated[node] - current[node]);
+      }).sum();
+      next = current;
+      rank = updated;
+      iteration++;
+    }
+    logger.debug("PageRank converged after {} iterations with a change of {}.", iteration, delta);
+    return rank;
+  }
+
+  /**
+   * Counts for every node the artifacts whose dependency closure contains it. Every instance is used by a single
+   * thread and marks the visited nodes with the number of the current search, so nothing is cleared
+   * between two searches.
+   */
+  private static class ClosureCounter {
+    private final int sourceCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] counts;
+    private final int[] visitedBy;
+    private final int[] queue;
+
+    private ClosureCounter(final int nodeCount, final int sourceCount, final int[] offsets, final int[] targets) {
+      this.sourceCount = sourceCount;
+      this.offsets = offsets;
+      this.targets = targets;
+      this.counts = new int[nodeCount];
+      this.visitedBy = new int[nodeCount];
+      this.queue = new int[nodeCount];
+    }
+
+    private void count(final int source) {
+      final int mark = source + 1;
+      visitedBy[source] = mark;
+      queue[0] = source;
+      int head = 0;
+      int tail = 1;
+      while (head < tail) {
+        final int node = queue[head++];
+        if ( node >= sourceCount ) {
+          continue;
+        }
+        for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+          final int target = targets[edge];
+          if ( visitedBy[target] != mark ) {
+            visitedBy[target] = mark;
+            counts[target]++;
+            queue[tail++] = target;
+          }
+        }
+      }
+    }
+
+    private ClosureCounter merge(final ClosureCounter other) {
+      for (int node = 0; node < counts.length; node++) {
+        counts[node] += other.counts[node];
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package software.reinvent.dependency.parser.service;
+
+import com.opencsv.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.BlastRadius;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the ranked {@link BlastRadius} of all artifacts and dependencies to BlastRadius_{date}.csv, the biggest
+ * first.
+ */
+public class BlastRadiusWriter {
+
+  private final Logger logger = LoggerFactory.getLogger(BlastRadiusWriter.class);
+  private final char separator;
+  private final GroupIdClassifier internalGroups;
+
+  /**
+   * @param separator      the separator of the CSV file
+   * @param internalGroups the internal groups to flag
+   */
+  public BlastRadiusWriter(final String separator, final GroupIdClassifier internalGroups) {
+    this.separator = separator.charAt(0);
+    this.internalGroups = internalGroups;
+  }
+
+  /**
+   * @param blastRadii the blast radii in the order of their rank
+   * @param resultDir  the dir where the CSV file will be written
+   * @param prefix     any optional prefix for the CSV file
+   *
+   * @throws IOException if the file could not be written
+   */
+  public void write(final List<BlastRadius> blastRadii, final File resultDir, final String prefix) throws IOException {
+    resultDir.mkdirs();
+    final File resultFile = new File(resultDir, prefix + "BlastRadius_" + LocalDate.now().toString() + ".csv");
+    logger.info("Will write blast radius to {}.", resultFile);
+    try (CSVWriter csvWriter = new CSVWriter(new FileWriter(resultFile), separator)) {
+      csvWriter.writeNext("rank#groupId#artifactId#internal#directDependents#transitiveDependents#pageRank".split("#"));
+      for (int rank = 0; rank < blastRadii.size(); rank++) {
+        final BlastRadius blastRadius = blastRadii.get(rank);
+        csvWriter.writeNext(new String[]{ String.valueOf(rank + 1),
+                                          blastRadius.getGroupId(),
+                                          blastRadius.getArtifactId(),
+                                          String.valueOf(internalGroups.matches(blastRadius.getGroupId())),
+                                          String.valueOf(blastRadius.getDirectDependents()),
+                                          String.valueOf(blastRadius.getTransitiveDependents()),
+                                          String.format(Locale.ENGLISH, "%.8f", blastRadius.getPageRank()) });
+      }
+    }
+  }
+}
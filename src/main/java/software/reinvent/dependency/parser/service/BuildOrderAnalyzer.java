@@ -0,0 +1,152 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.BuildOrder;
+
+import java.util.*;
+
+/**
+ * Finds the dependency cycles and the build waves of a set of artifacts, usually the internal ones. Only the
+ * dependencies between the given artifacts are considered.
+ * <p>
+ * The graph is stored in primitive arrays and the strongly connected components are found by an iterative variant of
+ * Tarjan's algorithm, so even graphs with hundreds of thousands of artifacts need neither recursion nor much memory.
+ * Tarjan completes a component only after all components it depends on, so the wave of a component is computed in
+ * the same pass: one more than the highest wave of its dependencies.
+ */
+public class BuildOrderAnalyzer {
+
+  private final Logger logger = LoggerFactory.getLogger(BuildOrderAnalyzer.class);
+
+  /**
+   * @param artifacts the artifacts to order
+   *
+   * @return the cycles and the waves of the artifacts
+   */
+  public BuildOrder analyze(final Collection<Artifact> artifacts) {
+    final Artifact[] nodes = artifacts.toArray(new Artifact[artifacts.size()]);
+    Arrays.sort(nodes, ReportGenerator.ARTIFACT_ORDER);
+    final int nodeCount = nodes.length;
+
+    final Map<String, Integer> nodeIndex = Maps.newHashMapWithExpectedSize(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      nodeIndex.put(nodes[i].getGroupId() + ":" + nodes[i].getArtifactId(), i);
+    }
+    // edges from an artifact to its dependencies in compressed sparse row format
+    final int[] offsets = new int[nodeCount + 1];
+    int[] targets = new int[Math.max(nodeCount, 16)];
+    int edgeCount = 0;
+    for (int i = 0; i < nodeCount; i++) {
+      offsets[i] = edgeCount;
+      for (final ArtifactDependency dependency : nodes[i].getDependencies()) {
+        final Integer target = nodeIndex.get(dependency.getGroupId() + ":" + dependency.getArtifactId());
+        // self references like test-jars of the same artifact are no cycles
+        if ( target != null && target != i ) {
+          if ( edgeCount == targets.length ) {
+            targets = Arrays.copyOf(targets, targets.length * 2);
+          }
+          targets[edgeCount++] = target;
+        }
+      }
+    }
+    offsets[nodeCount] = edgeCount;
+
+    final int[] discovery = new int[nodeCount];
+    Arrays.fill(discovery, -1);
+    final int[] lowLink = new int[nodeCount];
+    final boolean[] onStack = new boolean[nodeCount];
+    final int[] stack = new int[nodeCount];
+    final int[] callNodes = new int[nodeCount];
+    final int[] callEdges = new int[nodeCount];
+    final int[] component = new int[nodeCount];
+    final int[] componentWave = new int[nodeCount];
+    final int[] wave = new int[nodeCount];
+    final List<List<Artifact>> cycles = Lists.newArrayList();
+    int stackSize = 0;
+    int counter = 0;
+    int componentCount = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if ( discovery[root] != -1 ) {
+        continue;
+      }
+      discovery[root] = lowLink[root] = counter++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      callNodes[0] = root;
+      callEdges[0] = offsets[root];
+      int callDepth = 1;
+      while (callDepth > 0) {
+        final int node = callNodes[callDepth - 1];
+        if ( callEdges[callDepth - 1] < offsets[node + 1] ) {
+          final int target = targets[callEdges[callDepth - 1]++];
+          if ( discovery[target] == -1 ) {
+            discovery[target] = lowLink[target] = counter++;
+            stack[stackSize++] = target;
+            onStack[target] = true;
+            callNodes[callDepth] = target;
+            callEdges[callDepth] = offsets[target];
+            callDepth++;
+          } else if ( onStack[target] ) {
+            lowLink[node] = Math.min(lowLink[node], discovery[target]);
+          }
+          continue;
+        }
+        callDepth--;
+        if ( callDepth > 0 ) {
+          final int caller = callNodes[callDepth - 1];
+          lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+        }
+        if ( lowLink[node] == discovery[node] ) {
+          int start = stackSize;
+          do {
+            start--;
+            onStack[stack[start]] = false;
+            component[stack[start]] = componentCount;
+          } while (stack[start] != node);
+          int currentWave = 0;
+          for (int i = start; i < stackSize; i++) {
+            for (int edge = offsets[stack[i]]; edge < offsets[stack[i] + 1]; edge++) {
+              if ( component[targets[edge]] != componentCount ) {
+                currentWave = Math.max(currentWave, componentWave[component[targets[edge]]] + 1);
+              }
+            }
+          }
+          componentWave[componentCount] = currentWave;
+          final List<Artifact> members = Lists.newArrayList();
+          for (int i = start; i < stackSize; i++) {
+            wave[stack[i]] = currentWave;
+            members.add(nodes[stack[i]]);
+          }
+          if ( members.size() > 1 ) {
+            members.sort(ReportGenerator.ARTIFACT_ORDER);
+            cycles.add(members);
+          }
+          stackSize = start;
+          componentCount++;
+        }
+      }
+    }
+
+    final List<List<Artifact>> waves = Lists.newArrayList();
+    final Map<Artifact, Integer> waveByArtifact = Maps.newHashMapWithExpectedSize(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      while (waves.size() <= wave[i]) {
+        waves.add(Lists.newArrayList());
+      }
+      waves.get(wave[i]).add(nodes[i]);
+      waveByArtifact.put(nodes[i], wave[i]);
+    }
+    logger.info("Ordered {} artifacts with {} dependencies in {} waves, found {} cycles.",
+                nodeCount,
+                edgeCount,
+                waves.size(),
+                cycles.size());
+    return new BuildOrder(waves, cycles, waveByArtifact);
+  }
+}
@@ -0,0 +1,69 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Maps;
+import com.opencsv.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.BuildOrder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Writes a {@link BuildOrder} to BuildOrder_{date}.csv, one line per artifact ordered by wave. Artifacts in a cycle
+ * list all members of their cycle.
+ */
+public class BuildOrderWriter {
+
+  private final Logger logger = LoggerFactory.getLogger(BuildOrderWriter.class);
+  private final char separator;
+
+  public BuildOrderWriter(final String separator) {
+    this.separator = separator.charAt(0);
+  }
+
+  /**
+   * @param buildOrder the build order to write
+   * @param resultDir  the dir where the CSV file will be written
+   * @param prefix     any optional prefix for the CSV file
+   *
+   * @throws IOException if the file could not be written
+   */
+  public void write(final BuildOrder buildOrder, final File resultDir, final String prefix) throws IOException {
+    final Map<Artifact, String> cycleByArtifact = Maps.newHashMap();
+    for (final List<Artifact> cycle : buildOrder.getCycles()) {
+      final String members = Joiner.on(",").join(cycle.stream().map(BuildOrderWriter::coordinates).collect(toList()));
+      logger.warn("Found dependency cycle {}.", members);
+      cycle.forEach(artifact -> cycleByArtifact.put(artifact, members));
+    }
+
+    resultDir.mkdirs();
+    final File resultFile = new File(resultDir, prefix + "BuildOrder_" + LocalDate.now().toString() + ".csv");
+    logger.info("Will write build order to {}.", resultFile);
+    try (CSVWriter csvWriter = new CSVWriter(new FileWriter(resultFile), separator)) {
+      csvWriter.writeNext("wave#groupId#artifactId#versions#cycle".split("#"));
+      final List<List<Artifact>> waves = buildOrder.getWaves();
+      for (int wave = 0; wave < waves.size(); wave++) {
+        for (final Artifact artifact : waves.get(wave)) {
+          csvWriter.writeNext(new String[]{ String.valueOf(wave),
+                                            artifact.getGroupId(),
+                                            artifact.getArtifactId(),
+                                            Joiner.on(",").join(artifact.getVersions()),
+                                            cycleByArtifact.getOrDefault(artifact, "") });
+        }
+      }
+    }
+  }
+
+  private static String coordinates(final Artifact artifact) {
+    return artifact.getGroupId() + ":" + artifact.getArtifactId();
+  }
+}
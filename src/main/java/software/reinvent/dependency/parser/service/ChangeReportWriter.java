@@ -0,0 +1,55 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Joiner;
+import com.opencsv.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.DependencyChange;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Writes the {@link DependencyChange}s of a {@link GraphDiff} to Changes_{date}.csv.
+ */
+public class ChangeReportWriter {
+
+  private final Logger logger = LoggerFactory.getLogger(ChangeReportWriter.class);
+  private final char separator;
+
+  public ChangeReportWriter(final String separator) {
+    this.separator = separator.charAt(0);
+  }
+
+  /**
+   * @param changes   the changes to write
+   * @param resultDir the dir where the CSV file will be written
+   * @param prefix    any optional prefix for the CSV file
+   *
+   * @throws IOException if the file could not be written
+   */
+  public void write(final Collection<DependencyChange> changes, final File resultDir, final String prefix)
+    throws IOException {
+    resultDir.mkdirs();
+    final File resultFile = new File(resultDir, prefix + "Changes_" + LocalDate.now().toString() + ".csv");
+    logger.info("Will write {} changes to {}.", changes.size(), resultFile);
+    try (CSVWriter csvWriter = new CSVWriter(new FileWriter(resultFile), separator)) {
+      csvWriter.writeNext(( "change#groupId#artifactId#addedVersions#removedVersions#addedLicenses#removedLicenses"
+                            + "#addedDependents#removedDependents" ).split("#"));
+      for (final DependencyChange change : changes) {
+        csvWriter.writeNext(new String[]{ change.getKind().name(),
+                                          change.getGroupId(),
+                                          change.getArtifactId(),
+                                          Joiner.on("\n").join(change.getAddedVersions()),
+                                          Joiner.on("\n").join(change.getRemovedVersions()),
+                                          Joiner.on("\n").join(change.getAddedLicenses()),
+                                          Joiner.on("\n").join(change.getRemovedLicenses()),
+                                          Joiner.on("\n").join(change.getAddedDependents()),
+                                          Joiner.on("\n").join(change.getRemovedDependents()) });
+      }
+    }
+  }
+}
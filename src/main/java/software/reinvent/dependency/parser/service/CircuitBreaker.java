@@ -0,0 +1,83 @@
+package software.reinvent.dependency.parser.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops requests to a failing repository. After a number of consecutive failures the circuit opens and all requests
+ * are rejected for a cool down time. Afterwards a single probe request is allowed, which either closes the circuit
+ * again on success or keeps it open for another cool down time. A probe which ends without an outcome must be
+ * released with {@link #onAbandoned()}.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long coolDownNanos;
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAtNanos;
+  private Thread probeThread;
+
+  /**
+   * @param failureThreshold the number of consecutive failures which opens the circuit
+   * @param coolDownMillis   the time in milliseconds the circuit stays open
+   */
+  public CircuitBreaker(final int failureThreshold, final long coolDownMillis) {
+    this.failureThreshold = failureThreshold;
+    this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(coolDownMillis);
+  }
+
+  /**
+   * @return true, if a request may be sent
+   */
+  public synchronized boolean allowRequest() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if ( System.nanoTime() - openedAtNanos >= coolDownNanos ) {
+          state = State.HALF_OPEN;
+          probeThread = Thread.currentThread();
+          return true;
+        }
+        return false;
+      default:
+        // a probe request is already running
+        return false;
+    }
+  }
+
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    state = State.CLOSED;
+    probeThread = null;
+  }
+
+  public synchronized void onFailure() {
+    consecutiveFailures++;
+    if ( state == State.HALF_OPEN || consecutiveFailures >= failureThreshold ) {
+      state = State.OPEN;
+      openedAtNanos = System.nanoTime();
+    }
+    probeThread = null;
+  }
+
+  /**
+   * Opens the circuit again if the calling thread got the probe request but did not report its outcome, e.g. because
+   * it was interrupted. The cool down time is already over, so the next request becomes the probe. Does nothing
+   * otherwise, so it may be called after every request.
+   */
+  public synchronized void onAbandoned() {
+    if ( state == State.HALF_OPEN && probeThread == Thread.currentThread() ) {
+      state = State.OPEN;
+      probeThread = null;
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+}
@@ -0,0 +1,125 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Maps;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.MetadataStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Adds the licenses and the description of a remote pom file to an {@link ArtifactDependency}. May be used by several
+ * threads at once.
+ */
+public class DependencyEnricher {
+
+  private final Logger logger = LoggerFactory.getLogger(DependencyEnricher.class);
+  private final PomReader pomReader = new PomReader();
+  private final RepositoryClient repositoryClient;
+  private final VersionResolver versionResolver;
+  private final String mavenUri;
+  private final String mavenRepository;
+  private final LicenseNormalizer licenseNormalizer;
+
+  /**
+   * @param repositoryClient the client for the remote repository
+   * @param versionResolver  resolves LATEST, RELEASE, version ranges and missing versions
+   * @param mavenUri         a specific maven repository URI to parse licenses and versions in remote pom files
+   * @param mavenRepository  repository that the artifact is contained in like central
+   */
+  public DependencyEnricher(final RepositoryClient repositoryClient,
+                            final VersionResolver versionResolver,
+                            final String mavenUri,
+                            final String mavenRepository) {
+    this(repositoryClient, versionResolver, mavenUri, mavenRepository, LicenseNormalizer.SHARED);
+  }
+
+  /**
+   * @param repositoryClient  the client for the remote repository
+   * @param versionResolver   resolves LATEST, RELEASE, version ranges and missing versions
+   * @param mavenUri          a specific maven repository URI to parse licenses and versions in remote pom files
+   * @param mavenRepository   repository that the artifact is contained in like central
+   * @param licenseNormalizer maps the licenses of the remote poms to canonical licenses
+   */
+  public DependencyEnricher(final RepositoryClient repositoryClient,
+                            final VersionResolver versionResolver,
+                            final String mavenUri,
+                            final String mavenRepository,
+                            final LicenseNormalizer licenseNormalizer) {
+    this.repositoryClient = repositoryClient;
+    this.versionResolver = versionResolver;
+    this.mavenUri = mavenUri;
+    this.mavenRepository = mavenRepository;
+    this.licenseNormalizer = licenseNormalizer;
+  }
+
+  /**
+   * Adds the licenses and description of a single version. Missing versions, unresolved properties, LATEST, RELEASE
+   * and version ranges are resolved to a concrete version through the maven-metadata.xml first, so only poms which
+   * may exist are requested. Never throws, failures are recorded as {@link MetadataStatus} of the dependency.
+   *
+   * @param dependency the dependency where to add the data
+   * @param version    the version of the artifact
+   */
+  public void enrich(final ArtifactDependency dependency, final String version) {
+    try {
+      final Optional<String> resolvedVersion = versionResolver.resolve(dependency.getGroupId(),
+                                                                       dependency.getArtifactId(),
+                                                                       version);
+      if ( resolvedVersion.isPresent() ) {
+        addDependencyMetadata(dependency, resolvedVersion.get());
+      } else {
+        dependency.addMetadataStatus(MetadataStatus.NOT_FOUND);
+      }
+    } catch (RepositoryUnavailableException e) {
+      logger.warn("Could not load pom for {} in version {}: {}", dependency, version, e.getMessage());
+      dependency.addMetadataStatus(MetadataStatus.UNKNOWN);
+    } catch (Exception e) {
+      logger.error("Could not load pom for {}.", dependency, e);
+      dependency.addMetadataStatus(MetadataStatus.UNKNOWN);
+    }
+  }
+
+  /**
+   * Adds the license and description to a {@link ArtifactDependency} by downloading a single version of a pom file
+   * from a remote maven repository.
+   *
+   * @param dependency the dependency where to add the data
+   * @param version    the concrete version of the artifact
+   *
+   * @throws IOException if the pom could not be downloaded or parsed
+   */
+  private void addDependencyMetadata(final ArtifactDependency dependency, final String version) throws IOException {
+    final Map<String, String> queryParameters = Maps.newLinkedHashMap();
+    queryParameters.put("p", "pom");
+    queryParameters.put("r", mavenRepository);
+    queryParameters.put("v", version);
+    queryParameters.put("g", dependency.getGroupId());
+    queryParameters.put("a", dependency.getArtifactId());
+    final Optional<String> body = repositoryClient.get(mavenUri, queryParameters);
+    if ( body.isPresent() && !containsIgnoreCase(body.get(), "</html>") ) {
+      final Model model = pomReader.read(body.get().getBytes(StandardCharsets.UTF_8));
+      if ( isNotBlank(model.getDescription()) ) {
+        dependency.addDescription(model.getDescription());
+      }
+      for (final License license : model.getLicenses()) {
+        dependency.getArtifactLicenses().add(licenseNormalizer.normalize(license.getName(), license.getUrl()));
+        if ( isNotBlank(license.getUrl()) ) {
+          dependency.getLicenseUrls().add(license.getUrl());
+        }
+      }
+      dependency.addMetadataStatus(MetadataStatus.RESOLVED);
+    } else {
+      dependency.addMetadataStatus(MetadataStatus.NOT_FOUND);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * All pom files found by a recursive scan of a directory. Directories matching one of the exclude globs are skipped,
+ * by default build output like target, node_modules and version control directories. With a {@link ScanIndex} only
+ * the directories changed since the last scan are listed.
+ */
+public class DirectoryPomSource implements PomSource {
+
+  /**
+   * Build output, dependencies of other build tools, version control and IDE directories.
+   */
+  public static final List<String> DEFAULT_EXCLUDES = ImmutableList.of("target",
+                                                                       "node_modules",
+                                                                       "bower_components",
+                                                                       ".git",
+                                                                       ".svn",
+                                                                       ".hg",
+                                                                       ".idea");
+
+  private final Logger logger = LoggerFactory.getLogger(DirectoryPomSource.class);
+  private final PomReader pomReader;
+  private final File rootDir;
+  private final PomFileWalker walker;
+  private final Optional<ScanIndex> scanIndex;
+
+  /**
+   * @param rootDir the directory where to start the recursive scan of pom files
+   */
+  public DirectoryPomSource(final File rootDir) {
+    this(rootDir, new PomReader());
+  }
+
+  /**
+   * @param rootDir   the directory where to start the recursive scan of pom files
+   * @param pomReader the reader for all found poms
+   */
+  public DirectoryPomSource(final File rootDir, final PomReader pomReader) {
+    this(rootDir, pomReader, DEFAULT_EXCLUDES);
+  }
+
+  /**
+   * @param rootDir   the directory where to start the recursive scan of pom files
+   * @param pomReader the reader for all found poms
+   * @param excludes  globs of directories to skip, matched against the name and the path relative to the rootDir
+   */
+  public DirectoryPomSource(final File rootDir, final PomReader pomReader, final List<String> excludes) {
+    this.rootDir = rootDir;
+    this.pomReader = pomReader;
+    this.walker = new PomFileWalker(excludes);
+    this.scanIndex = Optional.empty();
+  }
+
+  /**
+   * @param rootDir   the directory where to start the recursive scan of pom files
+   * @param pomReader the reader for all found poms
+   * @param excludes  globs of directories to skip, matched against the name and the path relative to the rootDir
+   * @param scanIndex the index of the last scan of the rootDir
+   */
+  public DirectoryPomSource(final File rootDir,
+                            final PomReader pomReader,
+                            final List<String> excludes,
+                            final ScanIndex scanIndex) {
+    this.rootDir = rootDir;
+    this.pomReader = pomReader;
+    this.walker = new PomFileWalker(excludes);
+    this.scanIndex = Optional.of(scanIndex);
+  }
+
+  @Override public Stream<ParsedPom> poms() {
+    logger.info("Scanning pom files under {}.", rootDir.toString());
+    final List<Path> pomFiles = scanIndex.isPresent()
+                                ? walker.walk(rootDir.toPath(), scanIndex.get())
+                                : walker.walk(rootDir.toPath(), false);
+    logger.info("Parsing {} pom files.", pomFiles.size());
+    return pomFiles.stream().map(Path::toFile).map(this::read);
+  }
+
+  private ParsedPom read(final File file) {
+    try {
+      final Model pom = pomReader.read(FileUtils.readFileToByteArray(file));
+      pom.setPomFile(file);
+      return new ParsedPom(pom,
+                           LocalDateTime.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneId.systemDefault()),
+                           file.getPath());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not parse " + file, e);
+    }
+  }
+}
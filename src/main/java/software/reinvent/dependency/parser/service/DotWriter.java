@@ -0,0 +1,62 @@
+package software.reinvent.dependency.parser.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+
+import static org.apache.commons.lang3.StringUtils.replace;
+
+/**
+ * Streams artifacts and their dependencies as a <a href="http://www.graphviz.org/content/dot-language">DOT</a>
+ * digraph to {prefix}Graph_{date}.dot. Internal dependencies are drawn as boxes, external ones as ellipses.
+ */
+public class DotWriter implements ReportWriter {
+
+  private final Logger logger = LoggerFactory.getLogger(DotWriter.class);
+  private Writer writer;
+
+  @Override public void open(final File resultDir, final String prefix) throws IOException {
+    final File resultFile = new File(resultDir, prefix + "Graph_" + LocalDate.now().toString() + ".dot");
+    logger.info("Will write DOT graph to {}.", resultFile);
+    writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(resultFile), StandardCharsets.UTF_8));
+    writer.write("digraph dependencies {\n");
+  }
+
+  @Override public void writeDependency(final ArtifactDependency dependency,
+                                        final Collection<Artifact> dependents,
+                                        final boolean internal) throws IOException {
+    writer.write("  ");
+    writer.write(nodeId(dependency.getGroupId(), dependency.getArtifactId()));
+    writer.write(internal ? " [shape=box];\n" : " [shape=ellipse];\n");
+  }
+
+  @Override public void writeArtifact(final Artifact artifact,
+                                      final Collection<ArtifactDependency> internalDependencies,
+                                      final Collection<ArtifactDependency> externalDependencies) throws IOException {
+    final String source = nodeId(artifact.getGroupId(), artifact.getArtifactId());
+    writer.write("  " + source + " [shape=box];\n");
+    for (final ArtifactDependency dependency : internalDependencies) {
+      writer.write("  " + source + " -> " + nodeId(dependency.getGroupId(), dependency.getArtifactId()) + ";\n");
+    }
+    for (final ArtifactDependency dependency : externalDependencies) {
+      writer.write("  " + source + " -> " + nodeId(dependency.getGroupId(), dependency.getArtifactId()) + ";\n");
+    }
+  }
+
+  @Override public void close() throws IOException {
+    if ( writer != null ) {
+      writer.write("}\n");
+      writer.close();
+    }
+  }
+
+  private static String nodeId(final String groupId, final String artifactId) {
+    return "\"" + replace(groupId + ":" + artifactId, "\"", "\\\"") + "\"";
+  }
+}
@@ -0,0 +1,147 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Enriches dependencies in the background while the poms are still parsed. Every groupId:artifactId:version is
+ * submitted to the {@link DependencyEnricher} exactly once, the results are merged into the dependency by the
+ * enrichment threads.
+ * <p>
+ * The lookups run either on an own thread pool or on a given executor which is left running on {@link #close()}.
+ * Cancelled lookups are interrupted, even if they are blocked in a request.
+ */
+public class EnrichmentPipeline implements AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(EnrichmentPipeline.class);
+  private final DependencyEnricher enricher;
+  private final ExecutorService executor;
+  private final boolean ownExecutor;
+  private final ProgressListener progressListener;
+  private final Set<String> submitted = Sets.newConcurrentHashSet();
+  private final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger enriched = new AtomicInteger();
+
+  /**
+   * @param enricher the enricher to call
+   * @param threads  the number of concurrent lookups
+   */
+  public EnrichmentPipeline(final DependencyEnricher enricher, final int threads) {
+    this(enricher, threads, ProgressListener.NONE);
+  }
+
+  /**
+   * @param enricher         the enricher to call
+   * @param threads          the number of concurrent lookups
+   * @param progressListener is notified about every finished lookup
+   */
+  public EnrichmentPipeline(final DependencyEnricher enricher,
+                            final int threads,
+                            final ProgressListener progressListener) {
+    this(enricher,
+         Executors.newFixedThreadPool(threads,
+                                      new ThreadFactoryBuilder().setNameFormat("enrichment-%d")
+                                                                .setDaemon(true)
+                                                                .build()),
+         true,
+         progressListener);
+  }
+
+  /**
+   * @param enricher         the enricher to call
+   * @param executor         the executor of the lookups, it is not shut down by this pipeline
+   * @param progressListener is notified about every finished lookup
+   */
+  public EnrichmentPipeline(final DependencyEnricher enricher,
+                            final ExecutorService executor,
+                            final ProgressListener progressListener) {
+    this(enricher, executor, false, progressListener);
+  }
+
+  private EnrichmentPipeline(final DependencyEnricher enricher,
+                             final ExecutorService executor,
+                             final boolean ownExecutor,
+                             final ProgressListener progressListener) {
+    this.enricher = enricher;
+    this.executor = executor;
+    this.ownExecutor = ownExecutor;
+    this.progressListener = progressListener;
+  }
+
+  /**
+   * Queues a version of a dependency for enrichment unless it was already queued.
+   *
+   * @param dependency the dependency to enrich
+   * @param version    the version to look up
+   */
+  public void submit(final ArtifactDependency dependency, final String version) {
+    if ( submitted.add(dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + version) ) {
+      pending.add(executor.submit(() -> {
+        enricher.enrich(dependency, version);
+        progressListener.onDependencyEnriched(dependency, version, enriched.incrementAndGet(), submitted.size());
+      }));
+    }
+  }
+
+  /**
+   * Blocks until all queued lookups are done.
+   */
+  public void awaitCompletion() {
+    awaitCompletion(() -> false);
+  }
+
+  /**
+   * Blocks until all queued lookups are done or the wait is cancelled.
+   *
+   * @param cancelled is checked while waiting
+   *
+   * @throws CancellationException if the wait was cancelled, the pending lookups are cancelled as well
+   */
+  public void awaitCompletion(final BooleanSupplier cancelled) {
+    logger.info("Waiting for {} metadata lookups.", pending.size());
+    Future<?> next;
+    while (( next = pending.peek() ) != null) {
+      try {
+        next.get(100, TimeUnit.MILLISECONDS);
+        pending.poll();
+      } catch (TimeoutException e) {
+        // checks the cancellation below
+      } catch (ExecutionException e) {
+        pending.poll();
+        logger.error("Metadata lookup failed.", e.getCause());
+      } catch (CancellationException e) {
+        pending.poll();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if ( cancelled.getAsBoolean() || Thread.currentThread().isInterrupted() ) {
+        cancelPending();
+        throw new CancellationException("The metadata lookups were cancelled.");
+      }
+    }
+  }
+
+  @Override public void close() {
+    if ( ownExecutor ) {
+      executor.shutdownNow();
+    } else {
+      cancelPending();
+    }
+  }
+
+  private void cancelPending() {
+    Future<?> next;
+    while (( next = pending.poll() ) != null) {
+      next.cancel(true);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * All pom.xml blobs of a ref in a local git repository. The blobs are read straight from the object database of the
+ * repository, so bare mirrors can be scanned without checking out a working tree.
+ * <p>
+ * Parsed blobs are cached by their object id. Sharing one cache between several sources makes sure that a pom which
+ * did not change between refs or repositories is parsed only once.
+ * <p>
+ * Requires the git command line client on the path.
+ */
+public class GitPomSource implements PomSource {
+
+  private final Logger logger = LoggerFactory.getLogger(GitPomSource.class);
+  private final PomReader pomReader;
+  private final File repository;
+  private final String ref;
+  private final Cache<String, Model> blobCache;
+
+  /**
+   * @param repository the git repository, either bare or with a working tree
+   * @param ref        the ref to scan like HEAD, a branch, a tag or a commit id
+   * @param blobCache  the cache of already parsed blobs
+   */
+  public GitPomSource(final File repository, final String ref, final Cache<String, Model> blobCache) {
+    this(repository, ref, blobCache, new PomReader());
+  }
+
+  /**
+   * @param repository the git repository, either bare or with a working tree
+   * @param ref        the ref to scan like HEAD, a branch, a tag or a commit id
+   * @param blobCache  the cache of already parsed blobs
+   * @param pomReader  the reader for all blobs which are not in the blob cache
+   */
+  public GitPomSource(final File repository,
+                      final String ref,
+                      final Cache<String, Model> blobCache,
+                      final PomReader pomReader) {
+    this.repository = repository;
+    this.ref = ref;
+    this.blobCache = blobCache;
+    this.pomReader = pomReader;
+  }
+
+  /**
+   * @return a new cache which can be shared between several {@link GitPomSource}s
+   */
+  public static Cache<String, Model> newBlobCache() {
+    return CacheBuilder.newBuilder().maximumSize(100_000).build();
+  }
+
+  @Override public Stream<ParsedPom> poms() {
+    logger.info("Scanning pom files of {} in {}.", ref, repository);
+    try {
+      final LocalDateTime commitDate = readCommitDate();
+      final Map<String, String> pomBlobs = listPomBlobs();
+      // identical poms at several paths are read once
+      final List<String> missingBlobs = pomBlobs.values()
+                                                .stream()
+                                                .distinct()
+                                                .filter(blobId -> blobCache.getIfPresent(blobId) == null)
+                                                .collect(toList());
+      logger.info("Parsing {} of {} pom files in {}.", missingBlobs.size(), pomBlobs.size(), repository);
+      readBlobs(missingBlobs);
+      return pomBlobs.entrySet()
+                     .stream()
+                     .filter(pom -> blobCache.getIfPresent(pom.getValue()) != null)
+                     .map(pom -> {
+                       // the graph mutates the dependencies of a model, so every consumer gets its own copy
+                       final Model model = blobCache.getIfPresent(pom.getValue()).clone();
+                       return new ParsedPom(model, commitDate, repository + "@" + ref + ":" + pom.getKey());
+                     });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not scan " + ref + " in " + repository, e);
+    }
+  }
+
+  private LocalDateTime readCommitDate() throws IOException {
+    final String seconds = trim(new String(git("log", "-1", "--format=%ct", ref), StandardCharsets.UTF_8));
+    return LocalDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(seconds)), ZoneId.systemDefault());
+  }
+
+  /**
+   * @return the paths of all pom.xml files mapped to their blob id
+   */
+  private Map<String, String> listPomBlobs() throws IOException {
+    final Map<String, String> pomBlobs = Maps.newLinkedHashMap();
+    final String tree = new String(git("ls-tree", "-r", "-z", "--full-tree", ref), StandardCharsets.UTF_8);
+    for (final String entry : split(tree, '\0')) {
+      // <mode> SP <type> SP <object> TAB <path>
+      final String path = substringAfter(entry, "\t");
+      final String[] header = split(substringBefore(entry, "\t"), ' ');
+      final boolean isPom = path.equals("pom.xml") || path.endsWith("/pom.xml");
+      if ( isPom && header.length == 3 && header[1].equals("blob") ) {
+        pomBlobs.put(path, header[2]);
+      }
+    }
+    return pomBlobs;
+  }
+
+  /**
+   * Reads and parses all blobs through a single "git cat-file --batch" process and adds them to the cache.
+   */
+  private void readBlobs(final List<String> blobIds) throws IOException {
+    if ( blobIds.isEmpty() ) {
+      return;
+    }
+    // stderr goes to a file, an undrained pipe could block git
+    final File errorFile = File.createTempFile("git-cat-file", ".err");
+    final Process process = new ProcessBuilder("git", "-C", repository.getPath(), "cat-file", "--batch")
+      .redirectError(errorFile)
+      .start();
+    final CompletableFuture<Void> request = CompletableFuture.runAsync(() -> {
+      try (Writer writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII)) {
+        for (final String blobId : blobIds) {
+          writer.write(blobId);
+          writer.write('\n');
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+      for (final String blobId : blobIds) {
+        // <object> SP <type> SP <size> LF <content> LF
+        final String[] header = split(readLine(input), ' ');
+        if ( header.length != 3 ) {
+          logger.warn("Could not read blob {} in {}.", blobId, repository);
+          continue;
+        }
+        final byte[] content = new byte[Integer.parseInt(header[2])];
+        input.readFully(content);
+        input.readByte();
+        try {
+          blobCache.put(blobId, pomReader.read(content));
+        } catch (IOException e) {
+          logger.error("Could not parse blob {} in {}.", blobId, repository, e);
+        }
+      }
+    } finally {
+      request.join();
+      process.destroy();
+      final String error = trim(FileUtils.readFileToString(errorFile, StandardCharsets.UTF_8));
+      if ( isNotEmpty(error) ) {
+        logger.warn("git cat-file in {} reported: {}", repository, error);
+      }
+      FileUtils.deleteQuietly(errorFile);
+    }
+  }
+
+  private static String readLine(final DataInputStream input) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int next;
+    while (( next = input.read() ) != '\n') {
+      if ( next == -1 ) {
+        throw new EOFException("Unexpected end of git cat-file output.");
+      }
+      line.write(next);
+    }
+    return new String(line.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private byte[] git(final String... arguments) throws IOException {
+    final List<String> command = Lists.newArrayList("git", "-C", repository.getPath());
+    command.addAll(Lists.newArrayList(arguments));
+    // stderr goes to a file, so git never blocks on a full stderr pipe while stdout is read
+    final File errorFile = File.createTempFile("git", ".err");
+    try {
+      final Process process = new ProcessBuilder(command).redirectError(errorFile).start();
+      process.getOutputStream().close();
+      final byte[] output = ByteStreams.toByteArray(process.getInputStream());
+      if ( process.waitFor() != 0 ) {
+        throw new IOException("git " + join(arguments, ' ') + " failed: "
+                              + FileUtils.readFileToString(errorFile, StandardCharsets.UTF_8));
+      }
+      return output;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while running git.");
+    } finally {
+      FileUtils.deleteQuietly(errorFile);
+    }
+  }
+}
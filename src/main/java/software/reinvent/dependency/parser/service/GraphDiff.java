@@ -0,0 +1,192 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+import software.reinvent.dependency.parser.model.DependencyChange;
+import software.reinvent.dependency.parser.model.DependencyScope;
+import software.reinvent.dependency.parser.model.DependencySnapshot;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Compares the dependencies of two graphs, either built ones or JSON Lines reports of earlier runs.
+ * <p>
+ * Both sides are consumed as streams sorted by groupId and artifactId and joined like a merge sort, so a diff takes
+ * linear time and only the changes are kept in memory. JSON Lines reports are already written in this order.
+ */
+public class GraphDiff {
+
+  static final Comparator<DependencySnapshot> SNAPSHOT_ORDER = Comparator.comparing(DependencySnapshot::getGroupId)
+                                                                          .thenComparing(DependencySnapshot::getArtifactId);
+
+  private final Logger logger = LoggerFactory.getLogger(GraphDiff.class);
+
+  /**
+   * @param artifacts the artifacts of a built graph
+   * @param scopes    the scopes of the dependencies to include, like the ones of the compared report
+   *
+   * @return the snapshots of the dependencies of the artifacts sorted by groupId and artifactId
+   */
+  public static Iterator<DependencySnapshot> snapshot(final Collection<Artifact> artifacts,
+                                                      final Set<DependencyScope> scopes) {
+    // grouped by hash first and sorted once, the same dependency may be held by different instances
+    final Map<ArtifactDependency, Snapshot> snapshots = Maps.newHashMap();
+    for (final Artifact artifact : artifacts) {
+      final String dependent = artifact.getGroupId() + ":" + artifact.getArtifactId();
+      for (final ArtifactDependency dependency : artifact.getDependencies(scopes)) {
+        final Snapshot snapshot = snapshots.computeIfAbsent(dependency, key -> new Snapshot());
+        // the graph shares one instance per dependency, so its versions and licenses are usually added once
+        if ( snapshot.lastInstance != dependency ) {
+          snapshot.lastInstance = dependency;
+          snapshot.versions.addAll(dependency.getVersions());
+          for (final ArtifactLicense license : dependency.getArtifactLicenses()) {
+            Optional.ofNullable(licenseKey(license)).ifPresent(snapshot.licenses::add);
+          }
+        }
+        snapshot.dependents.add(dependent);
+      }
+    }
+    final List<ArtifactDependency> dependencies = Lists.newArrayList(snapshots.keySet());
+    dependencies.sort(ReportGenerator.DEPENDENCY_ORDER);
+    return dependencies.stream()
+                       .map(dependency -> new DependencySnapshot(dependency.getGroupId(),
+                                                                 dependency.getArtifactId(),
+                                                                 snapshots.get(dependency).versions,
+                                                                 snapshots.get(dependency).licenses,
+                                                                 snapshots.get(dependency).dependents))
+                       .iterator();
+  }
+
+  /**
+   * Identifies a license by its SPDX id, so a license which is only spelled differently in two graphs is no change.
+   *
+   * @return the SPDX id of a license, its name if it has no SPDX id, its url if the name is missing as well or null if
+   * all are missing
+   */
+  static String licenseKey(final ArtifactLicense license) {
+    if ( isNotBlank(license.getSpdxId()) ) {
+      return license.getSpdxId();
+    }
+    return defaultIfBlank(license.getLicense(), license.getUrl());
+  }
+
+  /**
+   * @param before the dependencies of the older graph sorted by groupId and artifactId
+   * @param after  the dependencies of the newer graph sorted by groupId and artifactId
+   *
+   * @return all added, removed and changed dependencies sorted by groupId and artifactId
+   *
+   * @throws IllegalArgumentException if one of the sides is not sorted
+   */
+  public List<DependencyChange> diff(final Iterator<DependencySnapshot> before,
+                                     final Iterator<DependencySnapshot> after) {
+    final PeekingIterator<DependencySnapshot> older = Iterators.peekingIterator(sorted(before));
+    final PeekingIterator<DependencySnapshot> newer = Iterators.peekingIterator(sorted(after));
+    final List<DependencyChange> changes = Lists.newArrayList();
+    while (older.hasNext() || newer.hasNext()) {
+      final int order = !older.hasNext() ? 1 : !newer.hasNext() ? -1 : SNAPSHOT_ORDER.compare(older.peek(),
+                                                                                                newer.peek());
+      if ( order < 0 ) {
+        changes.add(change(DependencyChange.Kind.REMOVED, older.next(), null));
+      } else if ( order > 0 ) {
+        changes.add(change(DependencyChange.Kind.ADDED, null, newer.next()));
+      } else {
+        final DependencyChange change = change(DependencyChange.Kind.CHANGED, older.next(), newer.next());
+        if ( !change.getAddedVersions().isEmpty() || !change.getRemovedVersions().isEmpty()
+             || !change.getAddedLicenses().isEmpty() || !change.getRemovedLicenses().isEmpty()
+             || !change.getAddedDependents().isEmpty() || !change.getRemovedDependents().isEmpty() ) {
+          changes.add(change);
+        }
+      }
+    }
+    logger.info("Found {} changed dependencies.", changes.size());
+    return changes;
+  }
+
+  private static DependencyChange change(final DependencyChange.Kind kind,
+                                         final DependencySnapshot older,
+                                         final DependencySnapshot newer) {
+    final DependencySnapshot any = older == null ? newer : older;
+    return new DependencyChange(kind,
+                                any.getGroupId(),
+                                any.getArtifactId(),
+                                difference(newer, older, DependencySnapshot::getVersions),
+                                difference(older, newer, DependencySnapshot::getVersions),
+                                difference(newer, older, DependencySnapshot::getLicenses),
+                                difference(older, newer, DependencySnapshot::getLicenses),
+                                difference(newer, older, DependencySnapshot::getDependents),
+                                difference(older, newer, DependencySnapshot::getDependents));
+  }
+
+  /**
+   * @return the values of the first snapshot which are missing in the second one, found by a merge of both sorted
+   * value sets
+   */
+  private static Set<String> difference(final DependencySnapshot first,
+                                        final DependencySnapshot second,
+                                        final Function<DependencySnapshot, SortedSet<String>> values) {
+    if ( first == null ) {
+      return ImmutableSet.of();
+    }
+    if ( second == null ) {
+      return values.apply(first);
+    }
+    final PeekingIterator<String> missing = Iterators.peekingIterator(values.apply(first).iterator());
+    final PeekingIterator<String> existing = Iterators.peekingIterator(values.apply(second).iterator());
+    final ImmutableSet.Builder<String> difference = ImmutableSet.builder();
+    while (missing.hasNext()) {
+      final int order = existing.hasNext() ? missing.peek().compareTo(existing.peek()) : -1;
+      if ( order < 0 ) {
+        difference.add(missing.next());
+      } else if ( order > 0 ) {
+        existing.next();
+      } else {
+        missing.next();
+        existing.next();
+      }
+    }
+    return difference.build();
+  }
+
+  /**
+   * Passes the snapshots through and fails as soon as one is not in order.
+   */
+  private static Iterator<DependencySnapshot> sorted(final Iterator<DependencySnapshot> snapshots) {
+    return new Iterator<DependencySnapshot>() {
+      private DependencySnapshot previous;
+
+      @Override public boolean hasNext() {
+        return snapshots.hasNext();
+      }
+
+      @Override public DependencySnapshot next() {
+        final DependencySnapshot next = snapshots.next();
+        if ( previous != null && SNAPSHOT_ORDER.compare(previous, next) >= 0 ) {
+          throw new IllegalArgumentException("The dependencies are not sorted, " + next + " follows " + previous + ".");
+        }
+        previous = next;
+        return next;
+      }
+    };
+  }
+
+  private static class Snapshot {
+    private final Set<String> versions = Sets.newHashSet();
+    private final Set<String> licenses = Sets.newHashSet();
+    private final Set<String> dependents = Sets.newHashSet();
+    private ArtifactDependency lastInstance;
+  }
+}
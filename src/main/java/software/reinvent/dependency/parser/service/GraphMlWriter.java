@@ -0,0 +1,156 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Streams artifacts and their dependencies as a directed <a href="http://graphml.graphdrawing.org">GraphML</a> graph
+ * to {prefix}Graph_{date}.graphml. Nodes are identified by "groupId:artifactId", so an internal artifact and the
+ * dependency on it are the same node.
+ */
+public class GraphMlWriter implements ReportWriter {
+
+  private static final String GRAPHML_NS = "http://graphml.graphdrawing.org/xmlns";
+
+  private final Logger logger = LoggerFactory.getLogger(GraphMlWriter.class);
+  private final Set<String> writtenNodes = Sets.newHashSet();
+  private Writer fileWriter;
+  private XMLStreamWriter xml;
+
+  @Override public void open(final File resultDir, final String prefix) throws IOException {
+    final File resultFile = new File(resultDir, prefix + "Graph_" + LocalDate.now().toString() + ".graphml");
+    logger.info("Will write GraphML to {}.", resultFile);
+    fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(resultFile), StandardCharsets.UTF_8));
+    try {
+      xml = XMLOutputFactory.newInstance().createXMLStreamWriter(fileWriter);
+      xml.writeStartDocument("UTF-8", "1.0");
+      xml.writeCharacters("\n");
+      xml.writeStartElement("graphml");
+      xml.writeDefaultNamespace(GRAPHML_NS);
+      xml.writeCharacters("\n");
+      writeKey("kind");
+      writeKey("internal");
+      writeKey("versions");
+      writeKey("licenses");
+      xml.writeStartElement("graph");
+      xml.writeAttribute("id", "dependencies");
+      xml.writeAttribute("edgedefault", "directed");
+      xml.writeCharacters("\n");
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override public void writeDependency(final ArtifactDependency dependency,
+                                        final Collection<Artifact> dependents,
+                                        final boolean internal) throws IOException {
+    try {
+      writeNode(nodeId(dependency.getGroupId(), dependency.getArtifactId()),
+                "dependency",
+                internal,
+                dependency.getVersions(),
+                Joiner.on("\n").join(dependency.getArtifactLicenses()));
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override public void writeArtifact(final Artifact artifact,
+                                      final Collection<ArtifactDependency> internalDependencies,
+                                      final Collection<ArtifactDependency> externalDependencies) throws IOException {
+    final String source = nodeId(artifact.getGroupId(), artifact.getArtifactId());
+    try {
+      writeNode(source, "artifact", true, artifact.getVersions(), null);
+      for (final ArtifactDependency dependency : internalDependencies) {
+        writeEdge(source, nodeId(dependency.getGroupId(), dependency.getArtifactId()));
+      }
+      for (final ArtifactDependency dependency : externalDependencies) {
+        writeEdge(source, nodeId(dependency.getGroupId(), dependency.getArtifactId()));
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override public void close() throws IOException {
+    try {
+      if ( xml != null ) {
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndDocument();
+        xml.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      if ( fileWriter != null ) {
+        fileWriter.close();
+      }
+    }
+  }
+
+  private void writeKey(final String name) throws XMLStreamException {
+    xml.writeEmptyElement("key");
+    xml.writeAttribute("id", name);
+    xml.writeAttribute("for", "node");
+    xml.writeAttribute("attr.name", name);
+    xml.writeAttribute("attr.type", "string");
+    xml.writeCharacters("\n");
+  }
+
+  /**
+   * Writes a node once. Later calls for an already written node are ignored.
+   */
+  private void writeNode(final String id,
+                         final String kind,
+                         final boolean internal,
+                         final Collection<String> versions,
+                         final String licenses) throws XMLStreamException {
+    if ( !writtenNodes.add(id) ) {
+      return;
+    }
+    xml.writeStartElement("node");
+    xml.writeAttribute("id", id);
+    writeData("kind", kind);
+    writeData("internal", String.valueOf(internal));
+    writeData("versions", Joiner.on(",").join(versions));
+    if ( licenses != null ) {
+      writeData("licenses", licenses);
+    }
+    xml.writeEndElement();
+    xml.writeCharacters("\n");
+  }
+
+  private void writeData(final String key, final String value) throws XMLStreamException {
+    xml.writeStartElement("data");
+    xml.writeAttribute("key", key);
+    xml.writeCharacters(value);
+    xml.writeEndElement();
+  }
+
+  private void writeEdge(final String source, final String target) throws XMLStreamException {
+    xml.writeEmptyElement("edge");
+    xml.writeAttribute("source", source);
+    xml.writeAttribute("target", target);
+    xml.writeCharacters("\n");
+  }
+
+  private static String nodeId(final String groupId, final String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+}
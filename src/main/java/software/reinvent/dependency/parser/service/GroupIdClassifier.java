@@ -0,0 +1,96 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * Classifies groupIds by a set of exact and wildcard patterns, case insensitive like the maven repositories do.
+ * <ul>
+ * <li>com.acme matches exactly com.acme</li>
+ * <li>com.acme.* matches com.acme and every groupId below like com.acme.shop</li>
+ * <li>org.acme* matches every groupId starting with org.acme like org.acme-labs.tools</li>
+ * </ul>
+ * The patterns are compiled into a prefix trie, so a lookup walks every character of a groupId at most once no
+ * matter how many patterns are given. The result is cached per groupId.
+ */
+public class GroupIdClassifier {
+
+  /**
+   * Matches no groupId at all.
+   */
+  public static final GroupIdClassifier NONE = new GroupIdClassifier(ImmutableList.of());
+
+  private final Node root = new Node();
+  private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+  /**
+   * @param patterns exact groupIds or groupIds with a trailing * wildcard, blank patterns are ignored
+   */
+  public GroupIdClassifier(final Collection<String> patterns) {
+    for (final String pattern : patterns) {
+      final String normalized = lowerCase(trimToEmpty(pattern));
+      if ( normalized.isEmpty() ) {
+        continue;
+      }
+      if ( normalized.endsWith(".*") ) {
+        // the parent group itself belongs to its children
+        insert(removeEnd(normalized, ".*"), false);
+        insert(removeEnd(normalized, "*"), true);
+      } else if ( normalized.endsWith("*") ) {
+        insert(removeEnd(normalized, "*"), true);
+      } else {
+        insert(normalized, false);
+      }
+    }
+  }
+
+  /**
+   * @param groupId any groupId, may be null
+   *
+   * @return true, if the groupId matches any of the patterns
+   */
+  public boolean matches(final String groupId) {
+    if ( groupId == null ) {
+      return false;
+    }
+    return cache.computeIfAbsent(groupId, this::lookup);
+  }
+
+  private void insert(final String prefix, final boolean wildcard) {
+    Node node = root;
+    for (int i = 0; i < prefix.length(); i++) {
+      node = node.children.computeIfAbsent(prefix.charAt(i), character -> new Node());
+    }
+    if ( wildcard ) {
+      node.wildcard = true;
+    } else {
+      node.exact = true;
+    }
+  }
+
+  private boolean lookup(final String groupId) {
+    Node node = root;
+    for (int i = 0; i < groupId.length(); i++) {
+      if ( node.wildcard ) {
+        return true;
+      }
+      node = node.children.get(Character.toLowerCase(groupId.charAt(i)));
+      if ( node == null ) {
+        return false;
+      }
+    }
+    return node.exact || node.wildcard;
+  }
+
+  private static class Node {
+    private final Map<Character, Node> children = Maps.newHashMap();
+    private boolean exact;
+    private boolean wildcard;
+  }
+}
@@ -0,0 +1,122 @@
+package software.reinvent.dependency.parser.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+import software.reinvent.dependency.parser.model.DependencySnapshot;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams the dependency records of a JSON Lines report written by the {@link JsonLinesWriter} as
+ * {@link DependencySnapshot}s, one record at a time.
+ */
+public class JsonLinesSnapshotReader extends AbstractIterator<DependencySnapshot> implements Closeable {
+
+  private final File file;
+  private final JsonParser parser;
+
+  /**
+   * @param file a Graph_{date}.jsonl report
+   *
+   * @throws IOException if the file could not be opened
+   */
+  public JsonLinesSnapshotReader(final File file) throws IOException {
+    this.file = file;
+    this.parser = new JsonFactory().createParser(file);
+  }
+
+  @Override protected DependencySnapshot computeNext() {
+    try {
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        final DependencySnapshot snapshot = readRecord();
+        if ( snapshot != null ) {
+          return snapshot;
+        }
+      }
+      return endOfData();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + file, e);
+    }
+  }
+
+  @Override public void close() throws IOException {
+    parser.close();
+  }
+
+  /**
+   * @return the snapshot of a dependency record or null for any other record
+   */
+  private DependencySnapshot readRecord() throws IOException {
+    String type = null;
+    String groupId = null;
+    String artifactId = null;
+    final List<String> versions = Lists.newArrayList();
+    final List<String> licenses = Lists.newArrayList();
+    final List<String> dependents = Lists.newArrayList();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case "type":
+          type = parser.getValueAsString();
+          break;
+        case "groupId":
+          groupId = parser.getValueAsString();
+          break;
+        case "artifactId":
+          artifactId = parser.getValueAsString();
+          break;
+        case "versions":
+          readStrings(versions);
+          break;
+        case "dependents":
+          readStrings(dependents);
+          break;
+        case "licenses":
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Optional.ofNullable(GraphDiff.licenseKey(readLicense())).ifPresent(licenses::add);
+          }
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+    return "dependency".equals(type) ? new DependencySnapshot(groupId, artifactId, versions, licenses, dependents)
+                                     : null;
+  }
+
+  private ArtifactLicense readLicense() throws IOException {
+    String name = null;
+    String url = null;
+    String spdxId = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      parser.nextToken();
+      if ( "name".equals(field) ) {
+        name = parser.getValueAsString();
+      } else if ( "url".equals(field) ) {
+        url = parser.getValueAsString();
+      } else if ( "spdxId".equals(field) ) {
+        spdxId = parser.getValueAsString();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return new ArtifactLicense(name, url, spdxId);
+  }
+
+  private void readStrings(final List<String> values) throws IOException {
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      Optional.ofNullable(parser.getValueAsString()).ifPresent(values::add);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package software.reinvent.dependency.parser.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+import software.reinvent.dependency.parser.model.DependencyScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Writes artifacts and their dependencies as <a href="http://jsonlines.org">JSON Lines</a> to
+ * {prefix}Graph_{date}.jsonl. Every line is one self-contained record with a "type" of either "dependency" or
+ * "artifact", so the file can be consumed line by line without any multi-line quoting.
+ */
+public class JsonLinesWriter implements ReportWriter {
+
+  private final Logger logger = LoggerFactory.getLogger(JsonLinesWriter.class);
+  private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+  private JsonGenerator generator;
+
+  @Override public void open(final File resultDir, final String prefix) throws IOException {
+    final File resultFile = new File(resultDir, prefix + "Graph_" + LocalDate.now().toString() + ".jsonl");
+    logger.info("Will write JSON Lines to {}.", resultFile);
+    generator = jsonFactory.createGenerator(resultFile, JsonEncoding.UTF8);
+  }
+
+  @Override public void writeDependency(final ArtifactDependency dependency,
+                                        final Collection<Artifact> dependents,
+                                        final boolean internal) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("type", "dependency");
+    generator.writeStringField("groupId", dependency.getGroupId());
+    generator.writeStringField("artifactId", dependency.getArtifactId());
+    generator.writeBooleanField("internal", internal);
+    writeStrings("versions", dependency.getVersions());
+    writeStrings("scopes", dependency.getScopes().stream().map(DependencyScope::name).collect(toList()));
+    generator.writeArrayFieldStart("licenses");
+    for (final ArtifactLicense license : dependency.getArtifactLicenses()) {
+      generator.writeStartObject();
+      generator.writeStringField("name", license.getLicense());
+      generator.writeStringField("url", license.getUrl());
+      if ( license.getSpdxId() != null ) {
+        generator.writeStringField("spdxId", license.getSpdxId());
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    writeStrings("licenseUrls", dependency.getLicenseUrls());
+    generator.writeStringField("metadata", dependency.getMetadataStatus().name());
+    generator.writeStringField("description", dependency.getDescription());
+    generator.writeArrayFieldStart("dependents");
+    for (final Artifact dependent : dependents) {
+      generator.writeString(dependent.getGroupId() + ":" + dependent.getArtifactId());
+    }
+    generator.writeEndArray();
+    endRecord();
+  }
+
+  @Override public void writeArtifact(final Artifact artifact,
+                                      final Collection<ArtifactDependency> internalDependencies,
+                                      final Collection<ArtifactDependency> externalDependencies) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("type", "artifact");
+    generator.writeStringField("groupId", artifact.getGroupId());
+    generator.writeStringField("artifactId", artifact.getArtifactId());
+    writeStrings("versions", artifact.getVersions());
+    generator.writeStringField("packaging", artifact.getPackaging());
+    generator.writeArrayFieldStart("dependencies");
+    writeDependencyReferences(internalDependencies, true);
+    writeDependencyReferences(externalDependencies, false);
+    generator.writeEndArray();
+    endRecord();
+  }
+
+  @Override public void close() throws IOException {
+    if ( generator != null ) {
+      generator.close();
+    }
+  }
+
+  private void writeDependencyReferences(final Collection<ArtifactDependency> dependencies, final boolean internal)
+    throws IOException {
+    for (final ArtifactDependency dependency : dependencies) {
+      generator.writeStartObject();
+      generator.writeStringField("groupId", dependency.getGroupId());
+      generator.writeStringField("artifactId", dependency.getArtifactId());
+      generator.writeBooleanField("internal", internal);
+      generator.writeEndObject();
+    }
+  }
+
+  private void writeStrings(final String fieldName, final Collection<String> values) throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (final String value : values) {
+      generator.writeString(value);
+    }
+    generator.writeEndArray();
+  }
+
+  private void endRecord() throws IOException {
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+}
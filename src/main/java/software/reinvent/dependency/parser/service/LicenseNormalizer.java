@@ -0,0 +1,104 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * Maps the many spellings of license names and urls in pom files to canonical licenses with an SPDX identifier, so
+ * "Apache 2", "The Apache Software License, Version 2.0" and http://www.apache.org/licenses/LICENSE-2.0.txt all
+ * become the same Apache-2.0 license.
+ * <p>
+ * The spellings are read from the bundled spdx-licenses.txt. Every raw name and url seen is memoized, and all
+ * dependencies share one {@link ArtifactLicense} instance per SPDX license with the SPDX name and canonical url.
+ * Licenses which are not in the table are kept as they are. May be used by several threads at once, {@link #SHARED}
+ * keeps the memo for the whole process.
+ */
+public class LicenseNormalizer {
+
+  private static final String TABLE = "spdx-licenses.txt";
+  private static final Pattern PROTOCOL = Pattern.compile("^[a-z]+://(www\\.)?");
+  private static final Pattern FILE_SUFFIX = Pattern.compile("(\\.txt|\\.html?|\\.php)?/*$");
+  private static final Pattern PUNCTUATION = Pattern.compile("[^a-z0-9]+");
+
+  /**
+   * The normalizer shared by all graphs of this process.
+   */
+  public static final LicenseNormalizer SHARED = new LicenseNormalizer();
+
+  private final Map<String, ArtifactLicense> licenseBySpelling;
+  private final Map<String, ArtifactLicense> memo = new ConcurrentHashMap<>();
+
+  public LicenseNormalizer() {
+    this.licenseBySpelling = readTable();
+  }
+
+  /**
+   * @param name the name of a license as found in a pom file, may be null
+   * @param url  the url of a license as found in a pom file, may be null
+   *
+   * @return the canonical license if the name or url is known, otherwise a license with the given name and url
+   */
+  public ArtifactLicense normalize(final String name, final String url) {
+    return memo.computeIfAbsent(defaultString(name) + '\n' + defaultString(url), key -> {
+      final ArtifactLicense byName = licenseBySpelling.get(spelling(name));
+      if ( byName != null ) {
+        return byName;
+      }
+      final ArtifactLicense byUrl = licenseBySpelling.get(spelling(url));
+      return byUrl != null ? byUrl : new ArtifactLicense(name, url);
+    });
+  }
+
+  /**
+   * @return a license name or url in lower case without protocol, www., file suffix and punctuation
+   */
+  static String spelling(final String nameOrUrl) {
+    final String lowerCase = lowerCase(trimToEmpty(nameOrUrl));
+    final String withoutUrlParts = FILE_SUFFIX.matcher(PROTOCOL.matcher(lowerCase).replaceFirst(""))
+                                              .replaceFirst("");
+    return trim(PUNCTUATION.matcher(withoutUrlParts).replaceAll(" "));
+  }
+
+  private static Map<String, ArtifactLicense> readTable() {
+    final List<String> lines;
+    try {
+      lines = Resources.readLines(Resources.getResource(LicenseNormalizer.class, "/" + TABLE),
+                                  StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + TABLE, e);
+    }
+    final Map<String, ArtifactLicense> licenses = new HashMap<>();
+    for (final String line : lines) {
+      if ( isBlank(line) || line.startsWith("#") ) {
+        continue;
+      }
+      final List<String> columns = Splitter.on('|').trimResults().splitToList(line);
+      final String spdxId = columns.get(0);
+      final ArtifactLicense license = new ArtifactLicense(columns.get(1),
+                                                          "https://spdx.org/licenses/" + substringBefore(spdxId, " ")
+                                                          + ".html",
+                                                          spdxId);
+      for (final String spelling : columns) {
+        final ArtifactLicense existing = licenses.put(spelling(spelling), license);
+        if ( existing != null && !existing.getSpdxId().equals(spdxId) ) {
+          throw new IllegalStateException(spelling + " is listed for " + existing.getSpdxId() + " and " + spdxId);
+        }
+      }
+    }
+    licenses.remove("");
+    return ImmutableMap.copyOf(licenses);
+  }
+}
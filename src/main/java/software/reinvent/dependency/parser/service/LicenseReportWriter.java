@@ -0,0 +1,107 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+import com.opencsv.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+/**
+ * Writes one line per license of the external dependencies to Licenses_{date}.csv with all dependencies under this
+ * license and the number of artifacts using them, most used licenses first. Dependencies without any known license
+ * are listed as unknown. Licenses known to SPDX are listed once with their canonical url, whatever url the pom files
+ * give, other licenses once per name and url.
+ * <p>
+ * Unlike the other writers the lines are aggregated in memory and written when the writer is closed.
+ */
+public class LicenseReportWriter implements ReportWriter {
+
+  private static final ArtifactLicense UNKNOWN = new ArtifactLicense("unknown", null);
+
+  private final Logger logger = LoggerFactory.getLogger(LicenseReportWriter.class);
+  private final Map<ArtifactLicense, LicenseUsage> usages = new HashMap<>();
+  private final char separator;
+  private File resultFile;
+
+  public LicenseReportWriter(final String separator) {
+    this.separator = separator.charAt(0);
+  }
+
+  @Override public void open(final File resultDir, final String prefix) throws IOException {
+    resultFile = new File(resultDir, prefix + "Licenses_" + LocalDate.now().toString() + ".csv");
+  }
+
+  @Override public void writeDependency(final ArtifactDependency dependency,
+                                        final Collection<Artifact> dependents,
+                                        final boolean internal) {
+    if ( internal ) {
+      return;
+    }
+    final Collection<ArtifactLicense> licenses = dependency.getArtifactLicenses().isEmpty()
+                                                 ? Collections.singleton(UNKNOWN)
+                                                 : dependency.getArtifactLicenses();
+    for (final ArtifactLicense license : licenses) {
+      final LicenseUsage usage = usages.computeIfAbsent(license, LicenseUsage::new);
+      usage.dependencies.add(dependency.getGroupId() + ":" + dependency.getArtifactId());
+      dependents.forEach(dependent -> usage.dependents.add(dependent.getGroupId() + ":" + dependent.getArtifactId()));
+    }
+  }
+
+  @Override public void writeArtifact(final Artifact artifact,
+                                      final Collection<ArtifactDependency> internalDependencies,
+                                      final Collection<ArtifactDependency> externalDependencies) {
+    // the licenses are aggregated from the dependencies only
+  }
+
+  @Override public void close() throws IOException {
+    if ( resultFile == null ) {
+      return;
+    }
+    logger.info("Will write {} licenses to {}.", usages.size(), resultFile);
+    final List<LicenseUsage> sortedUsages = new ArrayList<>(usages.values());
+    sortedUsages.sort(Comparator.comparingInt(LicenseUsage::getDependencyCount)
+                                .reversed()
+                                .thenComparing(LicenseUsage::getName));
+    try (CSVWriter csvWriter = new CSVWriter(new FileWriter(resultFile), separator)) {
+      csvWriter.writeNext("license#spdxId#url#dependencyCount#dependentArtifactCount#dependencies".split("#"));
+      for (final LicenseUsage usage : sortedUsages) {
+        csvWriter.writeNext(new String[]{ usage.license.getLicense(),
+                                          defaultString(usage.license.getSpdxId()),
+                                          defaultString(usage.license.getUrl()),
+                                          String.valueOf(usage.getDependencyCount()),
+                                          String.valueOf(usage.dependents.size()),
+                                          Joiner.on("\n").join(usage.dependencies) });
+      }
+    }
+    resultFile = null;
+  }
+
+  private static class LicenseUsage {
+    private final ArtifactLicense license;
+    private final SortedSet<String> dependencies = Sets.newTreeSet();
+    private final Set<String> dependents = Sets.newHashSet();
+
+    private LicenseUsage(final ArtifactLicense license) {
+      this.license = license;
+    }
+
+    private int getDependencyCount() {
+      return dependencies.size();
+    }
+
+    private String getName() {
+      return defaultString(license.getLicense());
+    }
+  }
+}
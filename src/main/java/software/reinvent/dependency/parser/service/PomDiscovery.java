@@ -0,0 +1,31 @@
+package software.reinvent.dependency.parser.service;
+
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+import static org.apache.commons.lang3.StringUtils.upperCase;
+
+/**
+ * The ways to find the pom files under a root directory.
+ */
+public enum PomDiscovery {
+  /**
+   * Scans all directories which are not excluded, see {@link DirectoryPomSource}.
+   */
+  WALK,
+  /**
+   * Follows the modules of the top level poms, see {@link ReactorPomSource}.
+   */
+  REACTOR;
+
+  /**
+   * Parses a discovery name case insensitive.
+   *
+   * @param name the name like "walk" or "reactor"
+   *
+   * @return the discovery
+   *
+   * @throws IllegalArgumentException if there is no such discovery
+   */
+  public static PomDiscovery parse(final String name) {
+    return valueOf(upperCase(trimToEmpty(name)));
+  }
+}
@@ -0,0 +1,159 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Walks a directory tree for pom.xml files and skips every directory matching one of the exclude globs.
+ */
+class PomFileWalker {
+
+  private static final String POM_FILE = "pom.xml";
+
+  private final Logger logger = LoggerFactory.getLogger(PomFileWalker.class);
+  private final List<String> excludeGlobs;
+  private final List<PathMatcher> excludes;
+
+  /**
+   * @param excludes globs like target or vendor/** matched against the name and the relative path of a directory
+   */
+  PomFileWalker(final List<String> excludes) {
+    final FileSystem fileSystem = FileSystems.getDefault();
+    this.excludeGlobs = ImmutableList.copyOf(excludes);
+    this.excludes = excludes.stream().map(glob -> fileSystem.getPathMatcher("glob:" + glob)).collect(toList());
+  }
+
+  /**
+   * @param rootDir        the directory where to start the walk
+   * @param topLevelOnly true, if the walk should not descend into directories containing a pom.xml
+   *
+   * @return all found pom files
+   */
+  List<Path> walk(final Path rootDir, final boolean topLevelOnly) {
+    final List<Path> pomFiles = Lists.newArrayList();
+    final int[] visitedDirectories = { 0 };
+    try {
+      Files.walkFileTree(rootDir, new SimpleFileVisitor<Path>() {
+        @Override public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attributes) {
+          if ( !dir.equals(rootDir) && isExcluded(rootDir.relativize(dir)) ) {
+            return FileVisitResult.SKIP_SUBTREE;
+          }
+          visitedDirectories[0]++;
+          if ( topLevelOnly ) {
+            final Path pomFile = dir.resolve(POM_FILE);
+            if ( Files.isRegularFile(pomFile) ) {
+              pomFiles.add(pomFile);
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+          if ( !topLevelOnly && file.getFileName().toString().equals(POM_FILE) ) {
+            pomFiles.add(file);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not scan " + rootDir, e);
+    }
+    logger.info("Visited {} directories under {}.", visitedDirectories[0], rootDir);
+    return pomFiles;
+  }
+
+  /**
+   * Walks the directory tree for all pom files like {@link #walk(Path, boolean)}, but only lists the directories
+   * which changed since the last walk. All other directories are read from the scan index, which saves listing
+   * and reading the attributes of every file in the tree.
+   *
+   * @param rootDir   the directory where to start the walk
+   * @param scanIndex the index of the last walk, will be updated
+   *
+   * @return all found pom files
+   */
+  List<Path> walk(final Path rootDir, final ScanIndex scanIndex) {
+    final long scanStartMillis = System.currentTimeMillis();
+    final Map<String, ScanIndex.Directory> indexed = scanIndex.load(rootDir, excludeGlobs);
+    final Map<String, ScanIndex.Directory> scanned = Maps.newHashMap();
+    final List<Path> pomFiles = Lists.newArrayList();
+    final Deque<Path> pending = new ArrayDeque<>();
+    pending.push(rootDir);
+    int listedDirectories = 0;
+    try {
+      while (!pending.isEmpty()) {
+        final Path dir = pending.pop();
+        final BasicFileAttributes attributes;
+        try {
+          attributes = dir.equals(rootDir)
+                       ? Files.readAttributes(dir, BasicFileAttributes.class)
+                       : Files.readAttributes(dir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+          // removed since the last walk
+          continue;
+        }
+        if ( !attributes.isDirectory() ) {
+          continue;
+        }
+        final String relativeDir = rootDir.relativize(dir).toString();
+        final long modifiedMillis = attributes.lastModifiedTime().toMillis();
+        ScanIndex.Directory directory = indexed.get(relativeDir);
+        if ( directory == null || directory.getModifiedMillis() != modifiedMillis ) {
+          directory = list(rootDir, dir, modifiedMillis);
+          listedDirectories++;
+        }
+        scanned.put(relativeDir, directory);
+        if ( directory.hasPomFile() ) {
+          pomFiles.add(dir.resolve(POM_FILE));
+        }
+        directory.getSubdirectories().forEach(subdirectory -> pending.push(dir.resolve(subdirectory)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not scan " + rootDir, e);
+    }
+    scanIndex.save(rootDir, excludeGlobs, scanned, scanStartMillis);
+    logger.info("Visited {} directories under {}, listed {} new or changed of them.",
+                scanned.size(),
+                rootDir,
+                listedDirectories);
+    return pomFiles;
+  }
+
+  private ScanIndex.Directory list(final Path rootDir, final Path dir, final long modifiedMillis) throws IOException {
+    boolean pomFile = false;
+    final List<String> subdirectories = Lists.newArrayList();
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+      for (final Path entry : entries) {
+        if ( entry.getFileName().toString().equals(POM_FILE) && Files.isRegularFile(entry) ) {
+          pomFile = true;
+        } else if ( Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS) && !isExcluded(rootDir.relativize(entry)) ) {
+          subdirectories.add(entry.getFileName().toString());
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // removed while walking
+    }
+    subdirectories.sort(null);
+    return new ScanIndex.Directory(modifiedMillis, pomFile, ImmutableList.copyOf(subdirectories));
+  }
+
+  private boolean isExcluded(final Path relativeDir) {
+    return excludes.stream()
+                   .anyMatch(exclude -> exclude.matches(relativeDir) || exclude.matches(relativeDir.getFileName()));
+  }
+}
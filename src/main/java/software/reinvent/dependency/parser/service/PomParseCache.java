@@ -0,0 +1,288 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.hash.Hashing;
+import org.apache.maven.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+
+/**
+ * A content addressed on disk cache of the dependency data of pom files. The data is stored under the SHA-256 of the
+ * pom bytes, so byte identical poms in any directory, worktree, git repository or archive share one entry, across
+ * runs as well.
+ * <p>
+ * Only the data needed by the {@link ArtifactDependencyGraph} is stored in a compact binary format: coordinates,
+ * parent, packaging, properties, dependencies, managed dependencies and modules.
+ * <p>
+ * The least recently used entries are evicted when the cache grows above its size limit. The access order survives
+ * a restart through the modification time of the entries. Several processes may share a cache directory.
+ */
+public class PomParseCache {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final Logger logger = LoggerFactory.getLogger(PomParseCache.class);
+  private final Path cacheDir;
+  private final long maxBytes;
+  // hash to entry size in access order, the eldest entry is evicted first
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(1024, 0.75f, true);
+  private long totalBytes;
+
+  /**
+   * @param cacheDir the directory of the cache, will be created if missing
+   * @param maxBytes the maximum size of all entries in bytes
+   *
+   * @throws IOException if the directory could not be read
+   */
+  public PomParseCache(final File cacheDir, final long maxBytes) throws IOException {
+    this.cacheDir = cacheDir.toPath();
+    this.maxBytes = maxBytes;
+    Files.createDirectories(this.cacheDir);
+    loadIndex();
+  }
+
+  /**
+   * @param pom the bytes of a pom file
+   *
+   * @return the key of the pom in the cache
+   */
+  public static String hash(final byte[] pom) {
+    return Hashing.sha256().hashBytes(pom).toString();
+  }
+
+  /**
+   * @param hash the hash of the pom bytes
+   *
+   * @return the cached model or nothing if the pom is not cached
+   */
+  public Optional<Model> get(final String hash) {
+    final Path entry = entryPath(hash);
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if ( input.readInt() != FORMAT_VERSION ) {
+        return Optional.empty();
+      }
+      final Model model = readModel(input);
+      synchronized (this) {
+        entries.get(hash);
+      }
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return Optional.of(model);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      logger.warn("Could not read cache entry {}.", entry, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores a model and evicts the least recently used entries if the cache is too big.
+   *
+   * @param hash  the hash of the pom bytes
+   * @param model the parsed model
+   */
+  public void put(final String hash, final Model model) {
+    final Path entry = entryPath(hash);
+    try {
+      Files.createDirectories(entry.getParent());
+      final Path temp = Files.createTempFile(entry.getParent(), hash, ".tmp");
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        output.writeInt(FORMAT_VERSION);
+        writeModel(output, model);
+      }
+      Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      synchronized (this) {
+        final Long previous = entries.put(hash, Files.size(entry));
+        totalBytes += entries.get(hash) - ( previous == null ? 0 : previous );
+        evict();
+      }
+    } catch (IOException e) {
+      logger.warn("Could not write cache entry {}.", entry, e);
+    }
+  }
+
+  private void evict() {
+    final Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      final Map.Entry<String, Long> entry = eldest.next();
+      try {
+        Files.deleteIfExists(entryPath(entry.getKey()));
+      } catch (IOException e) {
+        logger.warn("Could not evict cache entry {}.", entry.getKey(), e);
+      }
+      totalBytes -= entry.getValue();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Reads all existing entries ordered by their last access.
+   */
+  private void loadIndex() throws IOException {
+    final List<Path> files;
+    try (Stream<Path> paths = Files.walk(cacheDir, 2)) {
+      files = paths.filter(path -> path.toString().endsWith(".bin")).collect(toList());
+    }
+    final Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+    for (final Path file : files) {
+      try {
+        attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+      } catch (IOException e) {
+        // evicted by an other process in the meantime
+      }
+    }
+    attributes.entrySet()
+              .stream()
+              .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+              .forEach(entry -> {
+                final String fileName = entry.getKey().getFileName().toString();
+                entries.put(removeEnd(fileName, ".bin"), entry.getValue().size());
+                totalBytes += entry.getValue().size();
+              });
+    logger.info("Pom parse cache {} contains {} entries with {} bytes.", cacheDir, entries.size(), totalBytes);
+  }
+
+  private Path entryPath(final String hash) {
+    return cacheDir.resolve(hash.substring(0, 2)).resolve(hash + ".bin");
+  }
+
+  private static void writeModel(final DataOutputStream output, final Model model) throws IOException {
+    writeString(output, model.getGroupId());
+    writeString(output, model.getArtifactId());
+    writeString(output, model.getVersion());
+    writeString(output, model.getPackaging());
+    final Parent parent = model.getParent();
+    output.writeBoolean(parent != null);
+    if ( parent != null ) {
+      writeString(output, parent.getGroupId());
+      writeString(output, parent.getArtifactId());
+      writeString(output, parent.getVersion());
+    }
+    final Set<String> propertyNames = model.getProperties().stringPropertyNames();
+    output.writeInt(propertyNames.size());
+    for (final String name : propertyNames) {
+      writeString(output, name);
+      writeString(output, model.getProperties().getProperty(name));
+    }
+    writeDependencies(output, model.getDependencies());
+    writeDependencies(output, model.getDependencyManagement() == null
+                              ? Collections.emptyList()
+                              : model.getDependencyManagement().getDependencies());
+    writeStrings(output, model.getModules());
+    output.writeInt(model.getProfiles().size());
+    for (final Profile profile : model.getProfiles()) {
+      writeString(output, profile.getId());
+      writeStrings(output, profile.getModules());
+    }
+  }
+
+  private static Model readModel(final DataInputStream input) throws IOException {
+    final Model model = new Model();
+    model.setGroupId(readString(input));
+    model.setArtifactId(readString(input));
+    model.setVersion(readString(input));
+    model.setPackaging(readString(input));
+    if ( input.readBoolean() ) {
+      final Parent parent = new Parent();
+      parent.setGroupId(readString(input));
+      parent.setArtifactId(readString(input));
+      parent.setVersion(readString(input));
+      model.setParent(parent);
+    }
+    final int properties = input.readInt();
+    for (int i = 0; i < properties; i++) {
+      model.addProperty(readString(input), readString(input));
+    }
+    readDependencies(input, model::addDependency);
+    final DependencyManagement dependencyManagement = new DependencyManagement();
+    readDependencies(input, dependencyManagement::addDependency);
+    model.setDependencyManagement(dependencyManagement);
+    readStrings(input, model::addModule);
+    final int profiles = input.readInt();
+    for (int i = 0; i < profiles; i++) {
+      final Profile profile = new Profile();
+      profile.setId(readString(input));
+      readStrings(input, profile::addModule);
+      model.addProfile(profile);
+    }
+    return model;
+  }
+
+  private static void writeDependencies(final DataOutputStream output, final List<Dependency> dependencies)
+    throws IOException {
+    output.writeInt(dependencies.size());
+    for (final Dependency dependency : dependencies) {
+      writeString(output, dependency.getGroupId());
+      writeString(output, dependency.getArtifactId());
+      writeString(output, dependency.getVersion());
+      writeString(output, dependency.getScope());
+      writeString(output, dependency.getType());
+      writeString(output, dependency.getClassifier());
+      writeString(output, dependency.getOptional());
+    }
+  }
+
+  private static void readDependencies(final DataInputStream input, final Consumer<Dependency> dependencies)
+    throws IOException {
+    final int size = input.readInt();
+    for (int i = 0; i < size; i++) {
+      final Dependency dependency = new Dependency();
+      dependency.setGroupId(readString(input));
+      dependency.setArtifactId(readString(input));
+      dependency.setVersion(readString(input));
+      dependency.setScope(readString(input));
+      dependency.setType(readString(input));
+      dependency.setClassifier(readString(input));
+      dependency.setOptional(readString(input));
+      dependencies.accept(dependency);
+    }
+  }
+
+  private static void writeStrings(final DataOutputStream output, final List<String> values) throws IOException {
+    output.writeInt(values.size());
+    for (final String value : values) {
+      writeString(output, value);
+    }
+  }
+
+  private static void readStrings(final DataInputStream input, final Consumer<String> values) throws IOException {
+    final int size = input.readInt();
+    for (int i = 0; i < size; i++) {
+      values.accept(readString(input));
+    }
+  }
+
+  /**
+   * Writes a nullable string as length prefixed UTF-8 bytes, -1 stands for null.
+   */
+  private static void writeString(final DataOutputStream output, final String value) throws IOException {
+    if ( value == null ) {
+      output.writeInt(-1);
+    } else {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  private static String readString(final DataInputStream input) throws IOException {
+    final int length = input.readInt();
+    if ( length < 0 ) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
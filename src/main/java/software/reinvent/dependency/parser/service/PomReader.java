@@ -0,0 +1,74 @@
+package software.reinvent.dependency.parser.service;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Transforms the content of pom files to {@link Model}s. If a {@link PomParseCache} is given, the content of a pom is
+ * parsed only if the cache does not already contain its dependency data.
+ */
+public class PomReader {
+
+  private final Optional<PomParseCache> parseCache;
+
+  public PomReader() {
+    this.parseCache = Optional.empty();
+  }
+
+  /**
+   * @param parseCache the cache to use for all poms
+   */
+  public PomReader(final PomParseCache parseCache) {
+    this.parseCache = Optional.of(parseCache);
+  }
+
+  /**
+   * @param pom the content of a pom file
+   *
+   * @return the parsed or cached model
+   *
+   * @throws IOException if the pom is not readable or not valid
+   */
+  public Model read(final byte[] pom) throws IOException {
+    if ( !parseCache.isPresent() ) {
+      return read(new ByteArrayInputStream(pom));
+    }
+    final String hash = PomParseCache.hash(pom);
+    final Optional<Model> cached = parseCache.get().get(hash);
+    if ( cached.isPresent() ) {
+      return cached.get();
+    }
+    final Model model = read(new ByteArrayInputStream(pom));
+    parseCache.get().put(hash, model);
+    return model;
+  }
+
+  /**
+   * @param pom the content of a pom file, will be closed afterwards
+   *
+   * @return the parsed model
+   *
+   * @throws IOException if the pom is not readable or not valid
+   */
+  public Model read(final InputStream pom) throws IOException {
+    try (InputStream input = pom) {
+      return ReaderHolder.READER.read(input);
+    } catch (XmlPullParserException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Creates the xml parser with the first pom to parse, so a run whose poms are all cached does not load it at all.
+   * The reader keeps no state between two poms.
+   */
+  private static class ReaderHolder {
+    private static final MavenXpp3Reader READER = new MavenXpp3Reader();
+  }
+}
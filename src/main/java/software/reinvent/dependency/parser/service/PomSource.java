@@ -0,0 +1,20 @@
+package software.reinvent.dependency.parser.service;
+
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.util.stream.Stream;
+
+/**
+ * A source of pom files like a directory tree or a git repository.
+ */
+@FunctionalInterface
+public interface PomSource {
+
+  /**
+   * Streams all poms of this source. Problems reading the source are thrown as
+   * {@link java.io.UncheckedIOException}.
+   *
+   * @return the parsed poms
+   */
+  Stream<ParsedPom> poms();
+}
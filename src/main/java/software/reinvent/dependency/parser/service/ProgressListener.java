@@ -0,0 +1,64 @@
+package software.reinvent.dependency.parser.service;
+
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+/**
+ * Receives the progress of building an {@link ArtifactDependencyGraph}. Parsed poms are reported by the building
+ * thread, enriched dependencies by the enrichment threads, so implementations must be thread safe.
+ */
+public interface ProgressListener {
+
+  /**
+   * Ignores all progress.
+   */
+  ProgressListener NONE = new ProgressListener() {
+  };
+
+  /**
+   * The phases of a build in their order.
+   */
+  enum Phase {
+    /**
+     * The pom source starts to search its poms, the search goes on in the background while they are parsed.
+     */
+    DISCOVER,
+    /**
+     * The found poms are parsed and added to the graph. Dependencies are already enriched in the background.
+     */
+    PARSE,
+    /**
+     * All poms are added, the remaining lookups are awaited.
+     */
+    ENRICH,
+    /**
+     * The graph is complete.
+     */
+    DONE
+  }
+
+  /**
+   * @param phase the phase which starts now
+   */
+  default void onPhase(final Phase phase) {
+  }
+
+  /**
+   * @param pom        the pom which was just added to the graph
+   * @param parsedPoms the number of poms added so far
+   */
+  default void onPomParsed(final ParsedPom pom, final int parsedPoms) {
+  }
+
+  /**
+   * @param dependency the dependency which was just enriched
+   * @param version    the version which was looked up
+   * @param enriched   the number of finished lookups
+   * @param submitted  the number of lookups submitted so far
+   */
+  default void onDependencyEnriched(final ArtifactDependency dependency,
+                                    final String version,
+                                    final int enriched,
+                                    final int submitted) {
+  }
+}
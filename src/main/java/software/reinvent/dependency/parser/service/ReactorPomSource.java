@@ -0,0 +1,186 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * All pom files of the maven reactors under a directory. Only the top level poms are searched on disk, every other pom
+ * is found through the modules declared by its aggregator, including the modules of profiles. So stale poms in build
+ * output and poms of unrelated directories are never read.
+ * <p>
+ * The modules are read in parallel on an own small thread pool and every pom is returned as soon as it is read. A pom
+ * which cannot be parsed is logged and skipped together with its modules.
+ */
+public class ReactorPomSource implements PomSource {
+
+  private final Logger logger = LoggerFactory.getLogger(ReactorPomSource.class);
+  private final File rootDir;
+  private final PomReader pomReader;
+  private final PomFileWalker walker;
+  private final int threads;
+
+  /**
+   * @param rootDir   the directory where to search for the top level poms
+   * @param pomReader the reader for all found poms
+   * @param excludes  globs of directories to skip while searching the top level poms
+   */
+  public ReactorPomSource(final File rootDir, final PomReader pomReader, final List<String> excludes) {
+    this(rootDir, pomReader, excludes, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * @param rootDir   the directory where to search for the top level poms
+   * @param pomReader the reader for all found poms
+   * @param excludes  globs of directories to skip while searching the top level poms
+   * @param threads   the number of poms read at the same time
+   */
+  public ReactorPomSource(final File rootDir,
+                          final PomReader pomReader,
+                          final List<String> excludes,
+                          final int threads) {
+    this.rootDir = rootDir;
+    this.pomReader = pomReader;
+    this.walker = new PomFileWalker(excludes);
+    this.threads = threads;
+  }
+
+  @Override public Stream<ParsedPom> poms() {
+    logger.info("Searching top level pom files under {}.", rootDir);
+    final List<Path> topLevelPoms = walker.walk(rootDir.toPath(), true);
+    logger.info("Following the modules of {} top level pom files.", topLevelPoms.size());
+    // idle threads end, so a stream which is not consumed to the end does not leak the pool
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+                                                               threads,
+                                                               1,
+                                                               TimeUnit.SECONDS,
+                                                               new LinkedBlockingQueue<>(),
+                                                               new ThreadFactoryBuilder().setNameFormat("reactor-%d")
+                                                                                         .setDaemon(true)
+                                                                                         .build());
+    executor.allowCoreThreadTimeOut(true);
+    final ModuleQueue modules = new ModuleQueue(executor);
+    topLevelPoms.forEach(modules::submit);
+    modules.done();
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(modules, Spliterator.ORDERED), false)
+                        .onClose(executor::shutdownNow);
+  }
+
+  /**
+   * Reads every submitted pom once and submits its modules. The read poms are handed to the consumer through a queue,
+   * an empty element marks the end.
+   */
+  private class ModuleQueue extends AbstractIterator<ParsedPom> {
+
+    private final ExecutorService executor;
+    private final Set<Path> visited = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Optional<ParsedPom>> poms = new LinkedBlockingQueue<>();
+    // the submitted poms which are not done yet and the caller until all top level poms are submitted
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private int returned;
+
+    private ModuleQueue(final ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    private void submit(final Path pomFile) {
+      if ( !visited.add(pomFile) ) {
+        return;
+      }
+      pending.incrementAndGet();
+      executor.execute(() -> {
+        try {
+          read(pomFile.toFile()).ifPresent(pom -> {
+            poms.add(Optional.of(pom));
+            modules(pomFile.getParent(), pom.getModel()).forEach(this::submit);
+          });
+        } finally {
+          done();
+        }
+      });
+    }
+
+    private void done() {
+      if ( pending.decrementAndGet() == 0 ) {
+        poms.add(Optional.empty());
+      }
+    }
+
+    @Override protected ParsedPom computeNext() {
+      try {
+        final Optional<ParsedPom> next = poms.take();
+        if ( next.isPresent() ) {
+          returned++;
+          return next.get();
+        }
+        logger.info("Read {} pom files of the reactors under {}.", returned, rootDir);
+        executor.shutdown();
+        return endOfData();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        executor.shutdownNow();
+        throw new UncheckedIOException(new InterruptedIOException("Interrupted while following modules."));
+      }
+    }
+  }
+
+  /**
+   * @return the existing pom files of all modules and profile modules of a pom
+   */
+  private List<Path> modules(final Path pomDir, final Model pom) {
+    final Set<String> modules = new LinkedHashSet<>(pom.getModules());
+    for (final Profile profile : pom.getProfiles()) {
+      modules.addAll(profile.getModules());
+    }
+    final List<Path> pomFiles = Lists.newArrayList();
+    for (final String module : modules) {
+      Path pomFile = pomDir.resolve(module.trim()).normalize();
+      if ( Files.isDirectory(pomFile) ) {
+        pomFile = pomFile.resolve("pom.xml");
+      }
+      if ( Files.isRegularFile(pomFile) ) {
+        pomFiles.add(pomFile);
+      } else {
+        logger.warn("Module {} of {} does not exist.", module, pomDir);
+      }
+    }
+    return pomFiles;
+  }
+
+  /**
+   * @return the parsed pom or nothing if it is not readable
+   */
+  private Optional<ParsedPom> read(final File file) {
+    try {
+      final Model pom = pomReader.read(FileUtils.readFileToByteArray(file));
+      pom.setPomFile(file);
+      return Optional.of(new ParsedPom(pom,
+                                       LocalDateTime.ofInstant(Files.getLastModifiedTime(file.toPath()).toInstant(),
+                                                               ZoneId.systemDefault()),
+                                       file.getPath()));
+    } catch (IOException e) {
+      logger.error("Could not parse {}, its modules are skipped.", file, e);
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package software.reinvent.dependency.parser.service;
+
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+import static org.apache.commons.lang3.StringUtils.upperCase;
+
+/**
+ * All available report formats and the {@link ReportWriter} which creates each of them.
+ */
+public enum ReportFormat {
+  /**
+   * Internal, external and artifact csv files.
+   */
+  CSV,
+  /**
+   * One JSON record per line.
+   */
+  JSONL,
+  /**
+   * A GraphML graph.
+   */
+  GRAPHML,
+  /**
+   * A Graphviz DOT graph.
+   */
+  DOT,
+  /**
+   * One csv line per license of the external dependencies.
+   */
+  LICENSES;
+
+  /**
+   * Creates a new writer for this format.
+   *
+   * @param csvSeparator the separator used in csv files
+   *
+   * @return the writer
+   */
+  public ReportWriter createWriter(final String csvSeparator) {
+    switch (this) {
+      case JSONL:
+        return new JsonLinesWriter();
+      case GRAPHML:
+        return new GraphMlWriter();
+      case DOT:
+        return new DotWriter();
+      case LICENSES:
+        return new LicenseReportWriter(csvSeparator);
+      default:
+        return new CsvWriter(csvSeparator);
+    }
+  }
+
+  /**
+   * Parses a format name case insensitive.
+   *
+   * @param name the name like "csv" or "jsonl"
+   *
+   * @return the format
+   *
+   * @throws IllegalArgumentException if there is no such format
+   */
+  public static ReportFormat parse(final String name) {
+    return valueOf(upperCase(trimToEmpty(name)));
+  }
+}
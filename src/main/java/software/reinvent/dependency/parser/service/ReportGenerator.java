@@ -0,0 +1,120 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.TreeMultimap;
+import com.google.common.io.Closer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.DependencyScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static java.util.stream.Collectors.partitioningBy;
+
+/**
+ * Walks the artifacts and their dependencies once and streams every record to all given {@link ReportWriter}s. Only
+ * the dependency partitions of the reported scopes are walked.
+ */
+public class ReportGenerator {
+
+  static final Comparator<ArtifactDependency> DEPENDENCY_ORDER = Comparator.comparing(ArtifactDependency::getGroupId)
+                                                                            .thenComparing(ArtifactDependency::getArtifactId);
+  static final Comparator<Artifact> ARTIFACT_ORDER = Comparator.comparing(Artifact::getGroupId)
+                                                               .thenComparing(Artifact::getArtifactId);
+
+  private final Logger logger = LoggerFactory.getLogger(ReportGenerator.class);
+  private final Set<Artifact> artifacts;
+  private final Predicate<ArtifactDependency> isInternal;
+  private final Set<DependencyScope> scopes;
+
+  /**
+   * @param artifacts       the artifacts to report
+   * @param internalGroupId the internal maven group id
+   */
+  public ReportGenerator(final Set<Artifact> artifacts, final String internalGroupId) {
+    this(artifacts, new GroupIdClassifier(Collections.singletonList(internalGroupId)));
+  }
+
+  /**
+   * @param artifacts      the artifacts to report
+   * @param internalGroups the classifier of internal group ids
+   */
+  public ReportGenerator(final Set<Artifact> artifacts, final GroupIdClassifier internalGroups) {
+    this(artifacts, internalGroups, EnumSet.allOf(DependencyScope.class));
+  }
+
+  /**
+   * @param artifacts      the artifacts to report
+   * @param internalGroups the classifier of internal group ids
+   * @param scopes         the scopes of the dependencies to report
+   */
+  public ReportGenerator(final Set<Artifact> artifacts,
+                         final GroupIdClassifier internalGroups,
+                         final Set<DependencyScope> scopes) {
+    this.artifacts = artifacts;
+    this.isInternal = dependency -> internalGroups.matches(dependency.getGroupId());
+    this.scopes = scopes;
+  }
+
+  /**
+   * Writes all dependencies and artifacts to the given writers. The writers will be closed afterwards.
+   *
+   * @param resultDir the dir where the files will be written
+   * @param prefix    any optional prefix for the files
+   * @param writers   the writers to feed
+   *
+   * @throws IOException if any writer fails
+   */
+  public void write(final File resultDir, final String prefix, final Collection<? extends ReportWriter> writers)
+    throws IOException {
+    final TreeMultimap<ArtifactDependency, Artifact> dependencyToArtifact
+      = TreeMultimap.create(DEPENDENCY_ORDER, Comparator.comparing(Artifact::getArtifactId)
+                                                        .thenComparing(Artifact::getGroupId));
+    artifacts.forEach(artifact -> artifact.getDependencies(scopes)
+                                          .forEach(dependency -> dependencyToArtifact.put(dependency, artifact)));
+
+    int internalDependencies = 0;
+    resultDir.mkdirs();
+    final Closer closer = Closer.create();
+    try {
+      for (final ReportWriter writer : writers) {
+        closer.register(writer);
+        writer.open(resultDir, prefix);
+      }
+      for (final Map.Entry<ArtifactDependency, Collection<Artifact>> entry : dependencyToArtifact.asMap()
+                                                                                                .entrySet()) {
+        final boolean internal = isInternal.test(entry.getKey());
+        if ( internal ) {
+          internalDependencies++;
+        }
+        for (final ReportWriter writer : writers) {
+          writer.writeDependency(entry.getKey(), entry.getValue(), internal);
+        }
+      }
+      final List<Artifact> sortedArtifacts = new ArrayList<>(artifacts);
+      sortedArtifacts.sort(ARTIFACT_ORDER);
+      for (final Artifact artifact : sortedArtifacts) {
+        final Map<Boolean, List<ArtifactDependency>> dependencies = artifact.getDependencies(scopes)
+                                                                            .stream()
+                                                                            .sorted(DEPENDENCY_ORDER)
+                                                                            .collect(partitioningBy(isInternal));
+        for (final ReportWriter writer : writers) {
+          writer.writeArtifact(artifact, dependencies.get(true), dependencies.get(false));
+        }
+      }
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+
+    logger.info("Found {} dependencies. {} internal and {} external",
+                dependencyToArtifact.keySet().size(),
+                internalDependencies,
+                dependencyToArtifact.keySet().size() - internalDependencies);
+  }
+}
@@ -0,0 +1,58 @@
+package software.reinvent.dependency.parser.service;
+
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * A single output format of the parsed {@link Artifact}s and {@link ArtifactDependency}s.
+ * <p>
+ * Writers are driven by the {@link ReportGenerator} which walks the graph exactly once and hands every record to all
+ * registered writers, so several formats are produced from a single pass. Implementations should stream the records
+ * to their target instead of collecting them.
+ * <p>
+ * The generator calls {@link #open(File, String)} first, then {@link #writeDependency(ArtifactDependency, Collection,
+ * boolean)} for every dependency, then {@link #writeArtifact(Artifact, Collection, Collection)} for every artifact and
+ * finally {@link #close()}.
+ */
+public interface ReportWriter extends Closeable {
+
+  /**
+   * Opens the target files of this writer.
+   *
+   * @param resultDir the dir where the files will be written
+   * @param prefix    any optional prefix for the files
+   *
+   * @throws IOException if a file could not be created
+   */
+  void open(File resultDir, String prefix) throws IOException;
+
+  /**
+   * Writes a single dependency.
+   *
+   * @param dependency the dependency to write
+   * @param dependents all artifacts depending on the dependency, sorted by artifact id
+   * @param internal   true, if the dependency is an internal one
+   *
+   * @throws IOException if the record could not be written
+   */
+  void writeDependency(ArtifactDependency dependency, Collection<Artifact> dependents, boolean internal)
+    throws IOException;
+
+  /**
+   * Writes a single artifact.
+   *
+   * @param artifact             the artifact to write
+   * @param internalDependencies the internal dependencies of the artifact, sorted by group and artifact id
+   * @param externalDependencies the external dependencies of the artifact, sorted by group and artifact id
+   *
+   * @throws IOException if the record could not be written
+   */
+  void writeArtifact(Artifact artifact,
+                     Collection<ArtifactDependency> internalDependencies,
+                     Collection<ArtifactDependency> externalDependencies) throws IOException;
+}
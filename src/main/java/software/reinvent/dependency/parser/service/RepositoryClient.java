@@ -0,0 +1,182 @@
+package software.reinvent.dependency.parser.service;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.libs.ws.WSClient;
+import play.libs.ws.WSRequest;
+import play.libs.ws.WSResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.StringUtils.isNoneBlank;
+import static org.apache.commons.lang3.math.NumberUtils.toLong;
+
+/**
+ * Resilient GET requests against a remote maven repository:
+ * <ul>
+ * <li>an {@link AdaptiveRateLimiter} slows down when the repository answers with 429 and honors Retry-After</li>
+ * <li>timeouts, 429 and 5xx responses are retried with an exponential backoff and full jitter</li>
+ * <li>a {@link CircuitBreaker} stops hammering a repository which keeps failing</li>
+ * </ul>
+ * A 404 or any other client error is a definitive answer that the data does not exist and is never retried. A 401 or
+ * 403 means the credentials do not grant access, so it is unknown whether the data exists. It fails the request
+ * without retrying.
+ */
+public class RepositoryClient {
+
+  private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+
+  private final Logger logger = LoggerFactory.getLogger(RepositoryClient.class);
+  private final WSClient wsClient;
+  private final String user;
+  private final String password;
+  private final AdaptiveRateLimiter rateLimiter;
+  private final CircuitBreaker circuitBreaker;
+  private final int maxAttempts;
+  private final long backoffMillis;
+  private final long timeoutMillis;
+
+  /**
+   * Creates a client with 4 attempts per request, a timeout of 3 seconds and a rate limit between 1 and 200
+   * requests per second. The circuit opens after 10 consecutive failures for 30 seconds.
+   *
+   * @param wsClient the http client
+   * @param user     the repository username
+   * @param password the repository password
+   */
+  public RepositoryClient(final WSClient wsClient, final String user, final String password) {
+    this(wsClient,
+         user,
+         password,
+         new AdaptiveRateLimiter(50, 1, 200),
+         new CircuitBreaker(10, TimeUnit.SECONDS.toMillis(30)),
+         4,
+         200,
+         3000);
+  }
+
+  /**
+   * @param wsClient       the http client
+   * @param user           the repository username
+   * @param password       the repository password
+   * @param rateLimiter    the rate limit for all requests
+   * @param circuitBreaker the circuit breaker for all requests
+   * @param maxAttempts    the maximum number of attempts per request
+   * @param backoffMillis  the base of the exponential backoff between two attempts in milliseconds
+   * @param timeoutMillis  the timeout of a single attempt in milliseconds
+   */
+  public RepositoryClient(final WSClient wsClient,
+                          final String user,
+                          final String password,
+                          final AdaptiveRateLimiter rateLimiter,
+                          final CircuitBreaker circuitBreaker,
+                          final int maxAttempts,
+                          final long backoffMillis,
+                          final long timeoutMillis) {
+    this.wsClient = wsClient;
+    this.user = user;
+    this.password = password;
+    this.rateLimiter = rateLimiter;
+    this.circuitBreaker = circuitBreaker;
+    this.maxAttempts = maxAttempts;
+    this.backoffMillis = backoffMillis;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Sends a GET request and follows redirects.
+   *
+   * @param uri             the uri to request
+   * @param queryParameters the query parameters to add
+   *
+   * @return the body of a 200 response or nothing if the repository does not contain the requested data
+   *
+   * @throws RepositoryUnavailableException if the repository could not answer, even after retrying
+   */
+  public Optional<String> get(final String uri, final Map<String, String> queryParameters)
+    throws RepositoryUnavailableException {
+    RepositoryUnavailableException lastFailure = null;
+    for (int attempt = 0; attempt < maxAttempts; attempt++) {
+      if ( !circuitBreaker.allowRequest() ) {
+        throw new RepositoryUnavailableException("The circuit breaker for " + uri + " is open.", lastFailure);
+      }
+      try {
+        if ( attempt > 0 ) {
+          sleepBackoff(attempt);
+        }
+        rateLimiter.acquire();
+        final WSResponse response = send(uri, queryParameters);
+        final int status = response.getStatus();
+        if ( status == 200 ) {
+          circuitBreaker.onSuccess();
+          rateLimiter.onSuccess();
+          return Optional.of(IOUtils.toString(response.getBodyAsStream(), StandardCharsets.UTF_8));
+        } else if ( status == 429 ) {
+          // the repository is healthy but wants us to slow down
+          circuitBreaker.onSuccess();
+          rateLimiter.onThrottled(retryAfterMillis(response));
+          lastFailure = new RepositoryUnavailableException("Too many requests to " + uri + ".");
+        } else if ( status >= 500 ) {
+          circuitBreaker.onFailure();
+          lastFailure = new RepositoryUnavailableException("Status " + status + " from " + uri + ".");
+        } else if ( status == 401 || status == 403 ) {
+          circuitBreaker.onSuccess();
+          rateLimiter.onSuccess();
+          throw new RepositoryUnavailableException("Status " + status + " from " + uri
+                                                   + ", check the repository credentials.");
+        } else {
+          circuitBreaker.onSuccess();
+          rateLimiter.onSuccess();
+          return Optional.empty();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RepositoryUnavailableException("Interrupted while requesting " + uri + ".",
+                                                 new InterruptedIOException());
+      } catch (RepositoryUnavailableException e) {
+        throw e;
+      } catch (RuntimeException | IOException e) {
+        // timeouts and connection problems
+        circuitBreaker.onFailure();
+        lastFailure = new RepositoryUnavailableException("Could not request " + uri + ".", e);
+      } finally {
+        // releases a probe request which was interrupted or failed unexpectedly
+        circuitBreaker.onAbandoned();
+      }
+      logger.debug("Attempt {} of {} to request {} {} failed.", attempt + 1, maxAttempts, uri, queryParameters);
+    }
+    throw lastFailure;
+  }
+
+  private WSResponse send(final String uri, final Map<String, String> queryParameters) {
+    final WSRequest wsRequest = wsClient.url(uri).setFollowRedirects(true).setRequestTimeout(timeoutMillis);
+    queryParameters.forEach(wsRequest::setQueryParameter);
+    if ( isNoneBlank(user, password) ) {
+      wsRequest.setAuth(user, password);
+    }
+    return wsRequest.get().get(timeoutMillis);
+  }
+
+  /**
+   * Sleeps a random time between 0 and backoffMillis * 2^(attempt-1).
+   */
+  private void sleepBackoff(final int attempt) throws InterruptedException {
+    final long maxBackoff = backoffMillis << Math.min(attempt - 1, 16);
+    Thread.sleep(ThreadLocalRandom.current().nextLong(maxBackoff + 1));
+  }
+
+  /**
+   * @return the Retry-After seconds of a response in milliseconds, HTTP dates are not supported
+   */
+  private static long retryAfterMillis(final WSResponse response) {
+    final long seconds = toLong(response.getHeader("Retry-After"), -1);
+    return seconds < 0 ? DEFAULT_RETRY_AFTER_MILLIS : TimeUnit.SECONDS.toMillis(seconds);
+  }
+}
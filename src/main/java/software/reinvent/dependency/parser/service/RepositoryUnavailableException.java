@@ -0,0 +1,19 @@
+package software.reinvent.dependency.parser.service;
+
+import java.io.IOException;
+
+/**
+ * Signals that a remote repository could not answer a request, so it is unknown whether the requested data exists.
+ */
+public class RepositoryUnavailableException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  public RepositoryUnavailableException(final String message) {
+    super(message);
+  }
+
+  public RepositoryUnavailableException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,148 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The directories found by the last scan of a rootDir with their modification time, whether they contain a pom.xml
+ * and their subdirectories. A directory gets a new modification time whenever an entry is added, removed or
+ * renamed, so a directory with an unchanged time does not need to be listed again. There is one index file per
+ * rootDir and exclude globs, several processes may share the index directory.
+ */
+public class ScanIndex {
+
+  private static final int FORMAT_VERSION = 1;
+  // directories modified this short before a scan might change again without getting a new modification time
+  private static final long RACY_MILLIS = 2000;
+
+  private final Logger logger = LoggerFactory.getLogger(ScanIndex.class);
+  private final Path indexDir;
+
+  /**
+   * @param indexDir the directory of the index files, will be created if missing
+   *
+   * @throws IOException if the directory could not be created
+   */
+  public ScanIndex(final File indexDir) throws IOException {
+    this.indexDir = indexDir.toPath();
+    Files.createDirectories(this.indexDir);
+  }
+
+  /**
+   * @param rootDir  the scanned directory
+   * @param excludes the exclude globs of the scan
+   *
+   * @return the directories by their path relative to the rootDir, empty if the rootDir was not scanned yet. Racy
+   * directories which were modified right before the last scan are left out.
+   */
+  Map<String, Directory> load(final Path rootDir, final List<String> excludes) {
+    final Path indexFile = indexPath(rootDir, excludes);
+    final Map<String, Directory> directories = Maps.newHashMap();
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if ( input.readInt() != FORMAT_VERSION ) {
+        return directories;
+      }
+      final long scanStartMillis = input.readLong();
+      final int size = input.readInt();
+      for (int i = 0; i < size; i++) {
+        final String path = input.readUTF();
+        final long modifiedMillis = input.readLong();
+        final boolean pomFile = input.readBoolean();
+        final ImmutableList.Builder<String> subdirectories = ImmutableList.builder();
+        final int subdirectoryCount = input.readInt();
+        for (int j = 0; j < subdirectoryCount; j++) {
+          subdirectories.add(input.readUTF());
+        }
+        if ( modifiedMillis < scanStartMillis - RACY_MILLIS ) {
+          directories.put(path, new Directory(modifiedMillis, pomFile, subdirectories.build()));
+        }
+      }
+    } catch (NoSuchFileException e) {
+      logger.info("No scan index for {} yet.", rootDir);
+    } catch (IOException e) {
+      logger.warn("Could not read scan index {}.", indexFile, e);
+      directories.clear();
+    }
+    return directories;
+  }
+
+  /**
+   * Replaces the index of the rootDir.
+   *
+   * @param rootDir         the scanned directory
+   * @param excludes        the exclude globs of the scan
+   * @param directories     all directories of the scan by their path relative to the rootDir
+   * @param scanStartMillis the time the scan started
+   */
+  void save(final Path rootDir,
+            final List<String> excludes,
+            final Map<String, Directory> directories,
+            final long scanStartMillis) {
+    final Path indexFile = indexPath(rootDir, excludes);
+    try {
+      final Path temp = Files.createTempFile(indexDir, indexFile.getFileName().toString(), ".tmp");
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeLong(scanStartMillis);
+        output.writeInt(directories.size());
+        for (final Map.Entry<String, Directory> entry : directories.entrySet()) {
+          output.writeUTF(entry.getKey());
+          output.writeLong(entry.getValue().getModifiedMillis());
+          output.writeBoolean(entry.getValue().hasPomFile());
+          output.writeInt(entry.getValue().getSubdirectories().size());
+          for (final String subdirectory : entry.getValue().getSubdirectories()) {
+            output.writeUTF(subdirectory);
+          }
+        }
+      }
+      Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.warn("Could not write scan index {}.", indexFile, e);
+    }
+  }
+
+  private Path indexPath(final Path rootDir, final List<String> excludes) {
+    final String key = rootDir.toAbsolutePath().normalize() + "\n" + Joiner.on("\n").join(excludes);
+    return indexDir.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString() + ".idx");
+  }
+
+  /**
+   * A scanned directory.
+   */
+  static class Directory {
+    private final long modifiedMillis;
+    private final boolean pomFile;
+    private final List<String> subdirectories;
+
+    Directory(final long modifiedMillis, final boolean pomFile, final List<String> subdirectories) {
+      this.modifiedMillis = modifiedMillis;
+      this.pomFile = pomFile;
+      this.subdirectories = subdirectories;
+    }
+
+    long getModifiedMillis() {
+      return modifiedMillis;
+    }
+
+    boolean hasPomFile() {
+      return pomFile;
+    }
+
+    /**
+     * @return the names of the subdirectories which are not excluded
+     */
+    List<String> getSubdirectories() {
+      return subdirectories;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * Resolves the versions LATEST and RELEASE, version ranges and missing or unresolved versions to a concrete version
+ * through the maven-metadata.xml of an artifact. The metadata is fetched once per groupId:artifactId.
+ */
+public class VersionResolver {
+
+  public static final String LATEST = "LATEST";
+  public static final String RELEASE = "RELEASE";
+
+  private final Logger logger = LoggerFactory.getLogger(VersionResolver.class);
+  private final RepositoryClient repositoryClient;
+  private final String repositoryContentUri;
+  private final LoadingCache<String, Optional<Metadata>> metadataCache;
+
+  /**
+   * @param repositoryClient     the client for the remote repository
+   * @param repositoryContentUri the base URI of the repository content, like
+   *                             https://repo1.maven.org/maven2
+   */
+  public VersionResolver(final RepositoryClient repositoryClient, final String repositoryContentUri) {
+    this.repositoryClient = repositoryClient;
+    this.repositoryContentUri = removeEnd(repositoryContentUri, "/");
+    this.metadataCache = CacheBuilder.newBuilder().build(new CacheLoader<String, Optional<Metadata>>() {
+      @Override public Optional<Metadata> load(final String coordinates) throws Exception {
+        return fetchMetadata(substringBefore(coordinates, ":"), substringAfter(coordinates, ":"));
+      }
+    });
+  }
+
+  /**
+   * Derives the content URI of a Nexus 2 repository from its redirect service URI.
+   *
+   * @param mavenUri        the redirect service like https://host/service/local/artifact/maven/redirect
+   * @param mavenRepository the repository id like central-proxy
+   *
+   * @return the content URI like https://host/service/local/repositories/central-proxy/content
+   */
+  public static String nexusContentUri(final String mavenUri, final String mavenRepository) {
+    return removeEnd(removeEnd(mavenUri, "/"), "artifact/maven/redirect") + "repositories/" + mavenRepository
+           + "/content";
+  }
+
+  /**
+   * @param version any version of a dependency
+   *
+   * @return true, if the version can be requested without resolving it
+   */
+  public static boolean isConcrete(final String version) {
+    return isNotBlank(version) && !contains(version, "${") && !LATEST.equals(version) && !RELEASE.equals(version)
+           && !startsWithAny(version, "[", "(");
+  }
+
+  /**
+   * Resolves a version to a concrete one. Missing versions and unresolved properties are resolved as RELEASE.
+   *
+   * @param groupId    the group id of the artifact
+   * @param artifactId the artifact id of the artifact
+   * @param version    the version, LATEST, RELEASE, a version range or nothing
+   *
+   * @return the concrete version or nothing if the repository does not know any matching version
+   *
+   * @throws RepositoryUnavailableException if the metadata could not be fetched
+   */
+  public Optional<String> resolve(final String groupId, final String artifactId, final String version)
+    throws RepositoryUnavailableException {
+    if ( isConcrete(version) ) {
+      return Optional.of(version);
+    }
+    final Optional<Metadata> metadata = getMetadata(groupId, artifactId);
+    if ( !metadata.isPresent() ) {
+      return Optional.empty();
+    }
+    if ( LATEST.equals(version) ) {
+      return firstPresent(metadata.get().latest, highest(metadata.get().versions, v -> true));
+    } else if ( startsWithAny(version, "[", "(") ) {
+      try {
+        final VersionRange range = VersionRange.createFromVersionSpec(version);
+        return highest(metadata.get().versions, v -> range.containsVersion(new DefaultArtifactVersion(v)));
+      } catch (InvalidVersionSpecificationException e) {
+        logger.warn("Invalid version range {} for {}:{}.", version, groupId, artifactId);
+        return Optional.empty();
+      }
+    }
+    return firstPresent(metadata.get().release, highest(metadata.get().versions, v -> !endsWith(v, "-SNAPSHOT")));
+  }
+
+  private Optional<Metadata> getMetadata(final String groupId, final String artifactId)
+    throws RepositoryUnavailableException {
+    try {
+      return metadataCache.get(groupId + ":" + artifactId);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if ( e.getCause() instanceof RepositoryUnavailableException ) {
+        throw (RepositoryUnavailableException) e.getCause();
+      }
+      throw new RepositoryUnavailableException("Could not read metadata of " + groupId + ":" + artifactId + ".", e);
+    }
+  }
+
+  private Optional<Metadata> fetchMetadata(final String groupId, final String artifactId)
+    throws RepositoryUnavailableException {
+    final String uri = repositoryContentUri + "/" + replace(groupId, ".", "/") + "/" + artifactId
+                       + "/maven-metadata.xml";
+    final Optional<String> body = repositoryClient.get(uri, ImmutableMap.of());
+    if ( !body.isPresent() || containsIgnoreCase(body.get(), "</html>") ) {
+      return Optional.empty();
+    }
+    try {
+      final Xpp3Dom versioning = Xpp3DomBuilder.build(new StringReader(body.get())).getChild("versioning");
+      if ( versioning == null ) {
+        return Optional.empty();
+      }
+      final ImmutableList.Builder<String> versions = ImmutableList.builder();
+      Optional.ofNullable(versioning.getChild("versions"))
+              .ifPresent(children -> Stream.of(children.getChildren("version"))
+                                           .map(Xpp3Dom::getValue)
+                                           .filter(StringUtils::isNotBlank)
+                                           .forEach(versions::add));
+      return Optional.of(new Metadata(childValue(versioning, "latest"),
+                                      childValue(versioning, "release"),
+                                      versions.build()));
+    } catch (XmlPullParserException | IOException e) {
+      logger.warn("Could not parse {}.", uri, e);
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<String> childValue(final Xpp3Dom parent, final String name) {
+    return Optional.ofNullable(parent.getChild(name)).map(Xpp3Dom::getValue).map(StringUtils::stripToNull);
+  }
+
+  private static Optional<String> highest(final List<String> versions, final Predicate<String> filter) {
+    return versions.stream().filter(filter).max(Comparator.comparing(ComparableVersion::new));
+  }
+
+  private static Optional<String> firstPresent(final Optional<String> first, final Optional<String> second) {
+    return first.isPresent() ? first : second;
+  }
+
+  /**
+   * The versioning part of a maven-metadata.xml.
+   */
+  private static class Metadata {
+    private final Optional<String> latest;
+    private final Optional<String> release;
+    private final List<String> versions;
+
+    private Metadata(final Optional<String> latest, final Optional<String> release, final List<String> versions) {
+      this.latest = latest;
+      this.release = release;
+      this.versions = versions;
+    }
+  }
+}
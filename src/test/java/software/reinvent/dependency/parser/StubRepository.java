@@ -0,0 +1,251 @@
+package software.reinvent.dependency.parser;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+/**
+ * An embedded maven repository with the endpoints of a Nexus 2 which are used for the enrichment:
+ * <ul>
+ * <li>{@code /service/local/artifact/maven/redirect?r=&g=&a=&v=&p=} redirects to the content of a single artifact</li>
+ * <li>{@code /service/local/repositories/{repository}/content/{path}} serves the files of the fixture directory in
+ * the usual maven layout like {@code junit/junit/4.12/junit-4.12.pom} or {@code junit/junit/maven-metadata.xml}</li>
+ * </ul>
+ * Every request can be slowed down by a latency, fail with 503 at an error rate and is throttled with 429 above a
+ * number of requests per second.
+ */
+public class StubRepository implements AutoCloseable {
+
+  public static final String REPOSITORY = "central-proxy";
+
+  private static final String REDIRECT_PATH = "/service/local/artifact/maven/redirect";
+  private static final String CONTENT_PATH = "/service/local/repositories/" + REPOSITORY + "/content/";
+
+  static {
+    // without TCP_NODELAY every response waits for a delayed ACK of the client, about 40 ms on Linux. The property
+    // is read once, so it only applies if no other HttpServer was started in this JVM before.
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final File fixtureDir;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger throttledRequests = new AtomicInteger();
+  private final AtomicInteger failedRequests = new AtomicInteger();
+  private final AtomicLong windowStartMillis = new AtomicLong();
+  private final AtomicInteger windowRequests = new AtomicInteger();
+  private volatile long latencyMillis;
+  private volatile double errorRate;
+  private volatile int maxRequestsPerSecond = Integer.MAX_VALUE;
+
+  /**
+   * Starts the repository on a free local port.
+   *
+   * @param fixtureDir the directory with the files of the repository in the maven layout
+   *
+   * @throws IOException if the server could not be started
+   */
+  public StubRepository(final File fixtureDir) throws IOException {
+    this.fixtureDir = fixtureDir;
+    this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("stub-repository-%d")
+                                                                            .setDaemon(true)
+                                                                            .build());
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /**
+   * @return a repository with the fixtures of the test resources directory repository
+   *
+   * @throws IOException if the server could not be started
+   */
+  public static StubRepository withFixtures() throws IOException {
+    return new StubRepository(new File(StubRepository.class.getClassLoader().getResource("repository").getFile()));
+  }
+
+  /**
+   * @param latencyMillis the time every request waits before it is answered
+   *
+   * @return this repository
+   */
+  public StubRepository latency(final long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+    return this;
+  }
+
+  /**
+   * @param errorRate the share of requests between 0 and 1 which are answered with 503
+   *
+   * @return this repository
+   */
+  public StubRepository errorRate(final double errorRate) {
+    this.errorRate = errorRate;
+    return this;
+  }
+
+  /**
+   * @param maxRequestsPerSecond the number of requests per second, further requests are answered with 429
+   *
+   * @return this repository
+   */
+  public StubRepository maxRequestsPerSecond(final int maxRequestsPerSecond) {
+    this.maxRequestsPerSecond = maxRequestsPerSecond;
+    return this;
+  }
+
+  /**
+   * @return the URI to use as mavenUri
+   */
+  public String getRedirectUri() {
+    return getBaseUri() + REDIRECT_PATH;
+  }
+
+  /**
+   * @return the URI to use as mavenMetadataUri, the same as derived from {@link #getRedirectUri()}
+   */
+  public String getContentUri() {
+    return getBaseUri() + removeEnd(CONTENT_PATH, "/");
+  }
+
+  /**
+   * @return the number of all received requests
+   */
+  public int getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * @return the number of requests answered with 429
+   */
+  public int getThrottledRequests() {
+    return throttledRequests.get();
+  }
+
+  /**
+   * @return the number of requests answered with 503
+   */
+  public int getFailedRequests() {
+    return failedRequests.get();
+  }
+
+  @Override public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private String getBaseUri() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try {
+      requests.incrementAndGet();
+      if ( latencyMillis > 0 ) {
+        TimeUnit.MILLISECONDS.sleep(latencyMillis);
+      }
+      if ( isThrottled() ) {
+        throttledRequests.incrementAndGet();
+        exchange.getResponseHeaders().add("Retry-After", "1");
+        send(exchange, 429, "Too Many Requests");
+      } else if ( errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate ) {
+        failedRequests.incrementAndGet();
+        send(exchange, 503, "Service Unavailable");
+      } else if ( exchange.getRequestURI().getPath().equals(REDIRECT_PATH) ) {
+        redirect(exchange);
+      } else if ( exchange.getRequestURI().getPath().startsWith(CONTENT_PATH) ) {
+        sendFile(exchange, substringAfter(exchange.getRequestURI().getPath(), CONTENT_PATH));
+      } else {
+        send(exchange, 404, "Not Found");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Counts the requests of the current second, a fixed window is precise enough for a stub.
+   */
+  private boolean isThrottled() {
+    final long now = System.currentTimeMillis();
+    final long windowStart = windowStartMillis.get();
+    if ( now - windowStart >= 1000 && windowStartMillis.compareAndSet(windowStart, now) ) {
+      windowRequests.set(0);
+    }
+    return windowRequests.incrementAndGet() > maxRequestsPerSecond;
+  }
+
+  private void redirect(final HttpExchange exchange) throws IOException {
+    final Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+    final String path = replace(query.get("g"), ".", "/") + "/" + query.get("a") + "/" + query.get("v") + "/"
+                        + query.get("a") + "-" + query.get("v") + "." + defaultIfBlank(query.get("p"), "jar");
+    if ( REPOSITORY.equals(query.get("r")) && isNoneBlank(query.get("g"), query.get("a"), query.get("v"))
+         && getFixture(path) != null ) {
+      exchange.getResponseHeaders().add("Location", getBaseUri() + CONTENT_PATH + path);
+      send(exchange, 307, "Temporary Redirect");
+    } else {
+      send(exchange, 404, "Not Found");
+    }
+  }
+
+  private void sendFile(final HttpExchange exchange, final String path) throws IOException {
+    final File file = getFixture(path);
+    if ( file == null ) {
+      send(exchange, 404, "Not Found");
+      return;
+    }
+    final byte[] body = FileUtils.readFileToByteArray(file);
+    exchange.getResponseHeaders().add("Content-Type", path.endsWith(".jar") ? "application/java-archive" : "text/xml");
+    exchange.sendResponseHeaders(200, body.length);
+    exchange.getResponseBody().write(body);
+  }
+
+  /**
+   * Answers with a short text instead of an empty body. Without a body the server closes the connection after the
+   * response, which the http client notices as a reset when it sends the next request over the same connection.
+   */
+  private static void send(final HttpExchange exchange, final int status, final String text) throws IOException {
+    final byte[] body = text.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, body.length);
+    exchange.getResponseBody().write(body);
+  }
+
+  /**
+   * @return the file of the fixture directory or null if it does not exist or is outside of the directory
+   */
+  private File getFixture(final String path) throws IOException {
+    final File file = new File(fixtureDir, path).getCanonicalFile();
+    return file.isFile() && file.getPath().startsWith(fixtureDir.getCanonicalPath() + File.separator) ? file : null;
+  }
+
+  private static Map<String, String> parseQuery(final String query) throws UnsupportedEncodingException {
+    final Map<String, String> parameters = new HashMap<>();
+    for (final String parameter : split(defaultString(query), '&')) {
+      parameters.put(URLDecoder.decode(substringBefore(parameter, "="), StandardCharsets.UTF_8.name()),
+                     URLDecoder.decode(substringAfter(parameter, "="), StandardCharsets.UTF_8.name()));
+    }
+    return parameters;
+  }
+}
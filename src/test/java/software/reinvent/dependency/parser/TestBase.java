@@ -25,12 +25,13 @@ public class TestBase {
       ClassLoader classLoader = TestBase.class.getClassLoader();
       File rootDir = new File(classLoader.getResource("poms").getFile());
 
-      artifactDependencyGraph = new ArtifactDependencyGraph(rootDir,
-                                                            "https://repository.sonatype"
-                                                            + ".org/service/local/artifact/maven/redirect",
-                                                            EMPTY,
-                                                            EMPTY,
-                                                            "central-proxy");
+      try (StubRepository repository = StubRepository.withFixtures()) {
+        artifactDependencyGraph = new ArtifactDependencyGraph(rootDir,
+                                                              repository.getRedirectUri(),
+                                                              EMPTY,
+                                                              EMPTY,
+                                                              StubRepository.REPOSITORY);
+      }
     }
   }
 }
@@ -0,0 +1,139 @@
+package software.reinvent.dependency.parser.application;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Starts the {@link DependencyParser} in new JVMs for local runs without enrichment, first with an empty and then with
+ * a filled parse cache, and checks which classes a run with a filled cache loads. The benchmark, which logs the time to
+ * the first output and to the written reports, only runs with -Dbenchmark=true. The number of its runs can be raised
+ * with -Dbenchmark.startupRuns.
+ */
+public class StartupBenchmarkTest {
+
+  private static final int RUNS = Integer.getInteger("benchmark.startupRuns", 2);
+  // the class name in the class loading output of Java 8 and of Java 9 or newer
+  private static final Pattern LOADED_CLASS = Pattern.compile("(?:\\[Loaded |\\[class,load\\] )(\\S+)");
+
+  private final Logger logger = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+  private final File rootDir = new File(getClass().getClassLoader().getResource("poms").getFile());
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test public void testWarmRunLoadsNeitherHttpClientNorPomParser() throws Exception {
+    final File cacheDir = tempFolder.newFolder("cache");
+
+    assertThat(run(cacheDir).loadedClasses).contains("org.apache.maven.model.io.xpp3.MavenXpp3Reader");
+    assertLeanStart(run(cacheDir));
+  }
+
+  @Test public void testLocalRunStartsFast() throws Exception {
+    assumeTrue("Run with -Dbenchmark=true", Boolean.getBoolean("benchmark"));
+    final File cacheDir = tempFolder.newFolder("cache");
+
+    final Run cold = run(cacheDir);
+    final List<Run> warmRuns = Lists.newArrayList();
+    for (int i = 0; i < RUNS; i++) {
+      warmRuns.add(run(cacheDir));
+    }
+    final Run warm = warmRuns.stream().min((a, b) -> Long.compare(a.exitMillis, b.exitMillis)).get();
+    logger.info("Local run with an empty cache: first output after {} ms, done after {} ms with {} classes. "
+                + "Best of {} runs with a filled cache: first output after {} ms, done after {} ms with {} classes.",
+                cold.firstOutputMillis,
+                cold.exitMillis,
+                cold.loadedClasses.size(),
+                RUNS,
+                warm.firstOutputMillis,
+                warm.exitMillis,
+                warm.loadedClasses.size());
+    warmRuns.forEach(StartupBenchmarkTest::assertLeanStart);
+  }
+
+  /**
+   * A run with a filled parse cache needs neither the http client nor the pom parser.
+   */
+  private static void assertLeanStart(final Run run) {
+    assertThat(run.loadedClasses.stream().filter(name -> name.startsWith("com.ning.")
+                                                         || name.startsWith("org.jboss.netty.")
+                                                         || name.startsWith("play.libs.ws.ning.")
+                                                         || name.startsWith("scala."))
+                  .collect(toList())).isEmpty();
+    assertThat(run.loadedClasses).doesNotContain("org.apache.maven.model.io.xpp3.MavenXpp3Reader");
+  }
+
+  private Run run(final File cacheDir) throws Exception {
+    final File resultDir = tempFolder.newFolder();
+    final List<String> command = Lists.newArrayList(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                                                    "-verbose:class",
+                                                    "-cp",
+                                                    classpath(),
+                                                    DependencyParser.class.getName());
+    command.addAll(Arrays.asList("--rootDir", rootDir.getPath(),
+                                 "--resultDir", resultDir.getPath(),
+                                 "--parseCacheDir", cacheDir.getPath(),
+                                 "--skipEnrichment"));
+    final long start = System.nanoTime();
+    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    final Run run = new Run();
+    try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                                                                          StandardCharsets.UTF_8))) {
+      String line;
+      while (( line = output.readLine() ) != null) {
+        final Matcher loadedClass = LOADED_CLASS.matcher(line);
+        if ( loadedClass.find() ) {
+          run.loadedClasses.add(loadedClass.group(1));
+        } else if ( run.firstOutputMillis < 0 ) {
+          run.firstOutputMillis = ( System.nanoTime() - start ) / 1_000_000;
+        }
+      }
+    }
+    assertThat(process.waitFor()).isEqualTo(0);
+    run.exitMillis = ( System.nanoTime() - start ) / 1_000_000;
+    assertThat(resultDir.list()).isNotEmpty();
+    return run;
+  }
+
+  /**
+   * @return the classpath of this test, taken from the class loaders if the tests do not run in a JVM of their own
+   */
+  private String classpath() throws Exception {
+    final Set<String> entries = Sets.newLinkedHashSet();
+    for (ClassLoader loader = getClass().getClassLoader(); loader != null; loader = loader.getParent()) {
+      if ( loader instanceof URLClassLoader ) {
+        for (final URL url : ( (URLClassLoader) loader ).getURLs()) {
+          entries.add(new File(url.toURI()).getPath());
+        }
+      }
+    }
+    entries.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+    return Joiner.on(File.pathSeparator).join(entries);
+  }
+
+  private static class Run {
+    private final Set<String> loadedClasses = Sets.newHashSet();
+    private long firstOutputMillis = -1;
+    private long exitMillis;
+  }
+}
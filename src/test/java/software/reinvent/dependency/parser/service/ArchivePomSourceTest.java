@@ -0,0 +1,116 @@
+package software.reinvent.dependency.parser.service;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArchivePomSourceTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test public void testEmbeddedPomsOfNestedArchives() throws Exception {
+    final File poms = new File(getClass().getClassLoader().getResource("poms").getFile());
+    final byte[] firstPom = FileUtils.readFileToByteArray(new File(poms, "first/pom.xml"));
+    final byte[] secondPom = FileUtils.readFileToByteArray(new File(poms, "second/pom.xml"));
+
+    final ByteArrayOutputStream firstJar = new ByteArrayOutputStream();
+    try (ZipOutputStream jar = new ZipOutputStream(firstJar)) {
+      addEntry(jar, "META-INF/maven/software.reinvent.test/first/pom.xml", firstPom);
+      addEntry(jar, "software/reinvent/test/first/Starter.class", new byte[16]);
+    }
+    final File archives = tempFolder.newFolder("archives");
+    try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(new File(archives, "second.war")))) {
+      addEntry(war, "META-INF/maven/software.reinvent.test/second/pom.xml", secondPom);
+      addEntry(war, "WEB-INF/lib/first.jar", firstJar.toByteArray());
+    }
+    FileUtils.write(new File(archives, "readme.txt"), "no archive");
+
+    final List<ParsedPom> parsedPoms = new ArchivePomSource(archives).poms().collect(toList());
+    assertThat(parsedPoms.stream().map(pom -> pom.getModel().getArtifactId()).collect(toList())).containsOnly("first",
+                                                                                                              "second");
+    assertThat(parsedPoms.stream().map(ParsedPom::getLocation).collect(toList()))
+      .contains(new File(archives, "second.war") + "!/WEB-INF/lib/first.jar!/META-INF/maven/software.reinvent"
+                + ".test/first/pom.xml");
+  }
+
+  @Test public void testPomsBeforeABrokenNestedArchiveAreKept() throws Exception {
+    final File poms = new File(getClass().getClassLoader().getResource("poms").getFile());
+    final byte[] randomClass = new byte[64 * 1024];
+    new Random(42).nextBytes(randomClass);
+    final ByteArrayOutputStream firstJar = new ByteArrayOutputStream();
+    try (ZipOutputStream jar = new ZipOutputStream(firstJar)) {
+      addEntry(jar, "META-INF/maven/software.reinvent.test/first/pom.xml",
+               FileUtils.readFileToByteArray(new File(poms, "first/pom.xml")));
+      addEntry(jar, "software/reinvent/test/first/Starter.class", randomClass);
+    }
+    // the class entry of the jar is cut off
+    final byte[] truncatedJar = Arrays.copyOf(firstJar.toByteArray(), firstJar.size() / 2);
+    final File archives = tempFolder.newFolder("archives");
+    try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(new File(archives, "second.war")))) {
+      addEntry(war, "WEB-INF/lib/first.jar", truncatedJar);
+      addEntry(war, "META-INF/maven/software.reinvent.test/second/pom.xml",
+               FileUtils.readFileToByteArray(new File(poms, "second/pom.xml")));
+    }
+
+    assertThat(new ArchivePomSource(archives).poms().map(pom -> pom.getModel().getArtifactId()).collect(toList()))
+      .containsOnly("first", "second");
+  }
+
+  @Test public void testArchivesAreReadConcurrently() throws Exception {
+    final byte[] pom = FileUtils.readFileToByteArray(new File(getClass().getClassLoader().getResource("poms").getFile(),
+                                                              "first/pom.xml"));
+    final File archives = tempFolder.newFolder("archives");
+    for (int i = 0; i < 8; i++) {
+      try (ZipOutputStream jar = new ZipOutputStream(new FileOutputStream(new File(archives, "module" + i + ".jar")))) {
+        addEntry(jar, "META-INF/maven/software.reinvent.test/first/pom.xml", pom);
+      }
+    }
+    // every read waits until four archives are read at the same time
+    final CountDownLatch concurrentReads = new CountDownLatch(4);
+    final AtomicBoolean concurrent = new AtomicBoolean(true);
+    final PomReader pomReader = new PomReader() {
+      @Override public Model read(final byte[] pom) throws IOException {
+        concurrentReads.countDown();
+        try {
+          if ( !concurrentReads.await(10, TimeUnit.SECONDS) ) {
+            concurrent.set(false);
+          }
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        return super.read(pom);
+      }
+    };
+
+    final List<ParsedPom> parsedPoms = new ArchivePomSource(archives, pomReader, 4).poms().collect(toList());
+
+    assertThat(parsedPoms).hasSize(8);
+    assertThat(concurrent.get()).isTrue();
+  }
+
+  private static void addEntry(final ZipOutputStream zip, final String name, final byte[] content)
+    throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(content);
+    zip.closeEntry();
+  }
+}
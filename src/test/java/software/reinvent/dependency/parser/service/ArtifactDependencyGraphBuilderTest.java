@@ -0,0 +1,187 @@
+package software.reinvent.dependency.parser.service;
+
+import org.junit.Test;
+import software.reinvent.dependency.parser.StubRepository;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.DependencyEdge;
+import software.reinvent.dependency.parser.model.DependencyScope;
+import software.reinvent.dependency.parser.model.MetadataStatus;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ArtifactDependencyGraphBuilderTest {
+
+  private final File rootDir = new File(getClass().getClassLoader().getResource("poms").getFile());
+
+  @Test public void testPhasesAreReported() throws Exception {
+    final List<ProgressListener.Phase> phases = new CopyOnWriteArrayList<>();
+    final AtomicInteger parsedPoms = new AtomicInteger();
+    final ArtifactDependencyGraph graph = ArtifactDependencyGraph.builder(new DirectoryPomSource(rootDir))
+                                                                 .progressListener(new ProgressListener() {
+                                                                   @Override public void onPhase(final Phase phase) {
+                                                                     phases.add(phase);
+                                                                   }
+
+                                                                   @Override
+                                                                   public void onPomParsed(final ParsedPom pom,
+                                                                                           final int parsed) {
+                                                                     parsedPoms.set(parsed);
+                                                                   }
+                                                                 })
+                                                                 .build();
+
+    assertThat(graph.getAllArtifacts().stream().map(Artifact::getArtifactId).collect(toSet()))
+      .containsOnly("first", "second");
+    assertThat(phases).containsExactly(ProgressListener.Phase.DISCOVER,
+                                       ProgressListener.Phase.PARSE,
+                                       ProgressListener.Phase.DONE);
+    assertThat(parsedPoms.get()).isEqualTo(3);
+  }
+
+  @Test public void testNothingIsLookedUpWithoutEnrichment() throws Exception {
+    final ArtifactDependencyGraph graph = ArtifactDependencyGraph.builder(new DirectoryPomSource(rootDir))
+                                                                 .repository("http://127.0.0.1:1/redirect",
+                                                                             "central",
+                                                                             "",
+                                                                             "")
+                                                                 .withoutEnrichment()
+                                                                 .build();
+
+    assertThat(graph.getAllArtifacts()).hasSize(2);
+    graph.getAllArtifacts()
+         .forEach(artifact -> artifact.getDependencies()
+                                      .forEach(dependency -> assertThat(dependency.getArtifactLicenses()).isEmpty()));
+  }
+
+  @Test public void testDependenciesArePartitionedByScope() throws Exception {
+    final ArtifactDependencyGraph graph = ArtifactDependencyGraph.builder(new DirectoryPomSource(rootDir)).build();
+    final Artifact first = getArtifact(graph, "first");
+    final Artifact second = getArtifact(graph, "second");
+
+    // junit has no scope in first but the parent manages it as test
+    assertThat(artifactIds(first.getDependencyEdges(DependencyScope.TEST))).containsOnly("junit");
+    assertThat(first.getDependencyEdges(DependencyScope.TEST).iterator().next().isScopeDeclared()).isFalse();
+    assertThat(artifactIds(first.getDependencyEdges(DependencyScope.COMPILE))).containsOnly("guice",
+                                                                                            "jackson-databind",
+                                                                                            "jackson-annotations");
+    assertThat(artifactIds(second.getDependencyEdges(DependencyScope.PROVIDED))).containsOnly("jetty-all-server");
+    assertThat(second.getDependencies(EnumSet.of(DependencyScope.COMPILE, DependencyScope.RUNTIME)))
+      .extracting(ArtifactDependency::getArtifactId)
+      .containsOnly("first", "wicket-core");
+    assertThat(second.getDependencies(EnumSet.allOf(DependencyScope.class))).hasSize(3);
+    assertThat(first.getDependencyEdges(DependencyScope.TEST).iterator().next().getDependency().getScopes())
+      .containsExactly(DependencyScope.TEST);
+  }
+
+  @Test public void testTestDependenciesAreNotEnriched() throws Exception {
+    try (StubRepository repository = StubRepository.withFixtures()) {
+      final ArtifactDependencyGraph graph = ArtifactDependencyGraph.builder(new DirectoryPomSource(rootDir))
+                                                                   .repository(repository.getRedirectUri(),
+                                                                               StubRepository.REPOSITORY,
+                                                                               "",
+                                                                               "")
+                                                                   .enrichTestScope(false)
+                                                                   .build();
+
+      final ArtifactDependency junit = getArtifact(graph, "first").getDependencyEdges(DependencyScope.TEST)
+                                                                  .iterator()
+                                                                  .next()
+                                                                  .getDependency();
+      assertThat(junit.getMetadataStatus()).isEqualTo(MetadataStatus.NOT_REQUESTED);
+      final ArtifactDependency wicketCore = getArtifact(graph, "second").getDependencies()
+                                                                        .stream()
+                                                                        .filter(dependency -> dependency
+                                                                          .getArtifactId()
+                                                                          .equals("wicket-core"))
+                                                                        .findAny()
+                                                                        .get();
+      assertThat(wicketCore.getMetadataStatus()).isEqualTo(MetadataStatus.RESOLVED);
+    }
+  }
+
+  @Test public void testBuildIsCancelled() throws Exception {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ArtifactDependencyGraph.builder(new DirectoryPomSource(rootDir))
+                             .progressListener(new ProgressListener() {
+                               @Override public void onPomParsed(final ParsedPom pom, final int parsedPoms) {
+                                 cancelled.set(true);
+                               }
+                             })
+                             .cancelWhen(cancelled::get)
+                             .buildAsync(executor)
+                             .join();
+      fail("The build was cancelled.");
+    } catch (CompletionException e) {
+      assertThat(e.getCause()).isInstanceOf(CancellationException.class);
+    } catch (CancellationException e) {
+      // thrown as is by join
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test public void testCancellingTheFutureInterruptsTheDiscovery() throws Exception {
+    final CountDownLatch discoveryStarted = new CountDownLatch(1);
+    final CountDownLatch discoveryInterrupted = new CountDownLatch(1);
+    final AtomicReference<String> discoveryThread = new AtomicReference<>();
+    final ExecutorService discoveryExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable,
+                                                                                                      "discovery"));
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final CompletableFuture<ArtifactDependencyGraph> graph = ArtifactDependencyGraph.builder(() -> {
+        discoveryThread.set(Thread.currentThread().getName());
+        discoveryStarted.countDown();
+        try {
+          new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+          discoveryInterrupted.countDown();
+        }
+        return Stream.empty();
+      }).discoveryExecutor(discoveryExecutor).buildAsync(executor);
+
+      assertThat(discoveryStarted.await(10, TimeUnit.SECONDS)).isTrue();
+      graph.cancel(true);
+
+      assertThat(discoveryInterrupted.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(discoveryThread.get()).isEqualTo("discovery");
+    } finally {
+      executor.shutdownNow();
+      discoveryExecutor.shutdownNow();
+    }
+  }
+
+  private static Artifact getArtifact(final ArtifactDependencyGraph graph, final String artifactId) {
+    return graph.getAllArtifacts()
+                .stream()
+                .filter(artifact -> artifact.getArtifactId().equals(artifactId))
+                .findAny()
+                .get();
+  }
+
+  private static Set<String> artifactIds(final Set<DependencyEdge> edges) {
+    return edges.stream().map(edge -> edge.getDependency().getArtifactId()).collect(toSet());
+  }
+}
@@ -36,9 +36,10 @@ public class ArtifactDependencyGraphTest extends TestBase {
     assertThat(junit).isPresent();
     assertThat(junit.get().getVersions()).containsExactly("4.12");
     assertThat(junit.get().getArtifactLicenses()).containsExactly(new ArtifactLicense("Eclipse Public License 1.0",
-                                                                                      "http://www.eclipse"
-                                                                                      + ".org/legal/epl-v10"
-                                                                                      + ".html"));
+                                                                                      "https://spdx.org/licenses/"
+                                                                                      + "EPL-1.0.html",
+                                                                                      "EPL-1.0"));
+    assertThat(junit.get().getLicenseUrls()).containsExactly("http://www.eclipse.org/legal/epl-v10.html");
     final Optional<Artifact> second = allArtifacts.stream()
                                                   .filter(artifact -> artifact.getArtifactId().equals("second"))
                                                   .findAny();
@@ -0,0 +1,156 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.BlastRadius;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class BlastRadiusAnalyzerTest {
+
+  private final Logger logger = LoggerFactory.getLogger(BlastRadiusAnalyzerTest.class);
+  private final Map<String, Artifact> artifacts = Maps.newHashMap();
+
+  @Test public void testRanking() throws Exception {
+    dependsOn("core", "junit", "guava");
+    dependsOn("api", "core", "guava");
+    dependsOn("web", "api", "core", "web");
+    dependsOn("service", "api");
+
+    final List<BlastRadius> blastRadii = new BlastRadiusAnalyzer().analyze(artifacts.values());
+
+    assertThat(blastRadii).extracting(BlastRadius::getArtifactId)
+                          .containsExactly("guava", "junit", "core", "api", "service", "web");
+    assertThat(blastRadii).extracting(BlastRadius::getTransitiveDependents).containsExactly(4, 4, 3, 2, 0, 0);
+    // the dependency of web on itself is no dependent
+    assertThat(blastRadii).extracting(BlastRadius::getDirectDependents).containsExactly(2, 1, 2, 2, 0, 0);
+    assertThat(blastRadii.stream().mapToDouble(BlastRadius::getPageRank).sum()).isCloseTo(1, within(1e-9));
+  }
+
+  @Test public void testCyclesAreCountedOnce() throws Exception {
+    dependsOn("service", "repository", "api");
+    dependsOn("repository", "service");
+    dependsOn("api");
+
+    final List<BlastRadius> blastRadii = new BlastRadiusAnalyzer().analyze(artifacts.values());
+
+    assertThat(blastRadii).extracting(BlastRadius::getArtifactId).containsExactly("api", "service", "repository");
+    assertThat(blastRadii).extracting(BlastRadius::getTransitiveDependents).containsExactly(2, 1, 1);
+  }
+
+  @Test public void testDependencyDeclaredTwiceIsOneEdge() throws Exception {
+    dependsOn("core", "guava");
+    dependsOn("web", "core", "guava");
+    // like the test-jar of core next to core, a subclass is never equal to the other dependency
+    artifact("web").getDependencies().add(new ArtifactDependency("software.reinvent", "core", "1.0") {
+    });
+
+    final List<BlastRadius> blastRadii = new BlastRadiusAnalyzer().analyze(artifacts.values());
+
+    assertThat(blastRadii).extracting(BlastRadius::getArtifactId).containsExactly("guava", "core", "web");
+    assertThat(blastRadii).extracting(BlastRadius::getDirectDependents).containsExactly(2, 1, 0);
+    // web splits its rank evenly between core and guava
+    assertThat(blastRadii.get(1).getPageRank()).isLessThan(blastRadii.get(0).getPageRank());
+  }
+
+  @Test public void testLargeGraph() throws Exception {
+    final Random random = new Random(42);
+    // a platform of shared libraries, every library uses two older ones and a few external dependencies
+    final int libraries = 500;
+    for (int i = 0; i < libraries; i++) {
+      final Artifact library = artifact("library" + i);
+      for (int j = 0; j < 2 && i > 0; j++) {
+        library.getDependencies().add(dependency("library" + random.nextInt(i)));
+      }
+      for (int j = 0; j < 5; j++) {
+        library.getDependencies().add(dependency("external" + random.nextInt(5000)));
+      }
+    }
+    // projects of ten modules using the earlier modules, the platform and many external dependencies
+    for (int project = 0; project < 2000; project++) {
+      for (int module = 0; module < 10; module++) {
+        final Artifact artifact = artifact("project" + project + "-module" + module);
+        for (int j = 0; j < module; j += 3) {
+          artifact.getDependencies().add(dependency("project" + project + "-module" + j));
+        }
+        artifact.getDependencies().add(dependency("library" + random.nextInt(libraries)));
+        for (int j = 0; j < 12; j++) {
+          artifact.getDependencies().add(dependency("external" + random.nextInt(5000)));
+        }
+      }
+    }
+    final int edges = artifacts.values().stream().mapToInt(artifact -> artifact.getDependencies().size()).sum();
+
+    final long start = System.nanoTime();
+    final List<BlastRadius> blastRadii = new BlastRadiusAnalyzer().analyze(artifacts.values());
+    logger.info("Ranked {} artifacts with {} dependencies in {} ms.",
+                artifacts.size(),
+                edges,
+                ( System.nanoTime() - start ) / 1_000_000);
+
+    assertThat(edges).isGreaterThan(250_000);
+    assertThat(blastRadii.stream().mapToDouble(BlastRadius::getPageRank).sum()).isCloseTo(1, within(1e-6));
+    for (final BlastRadius blastRadius : blastRadii.subList(0, 10)) {
+      assertThat(blastRadius.getTransitiveDependents()).isEqualTo(countDependents(blastRadius.getArtifactId()));
+    }
+    for (int i = 1; i < blastRadii.size(); i++) {
+      assertThat(blastRadii.get(i).getTransitiveDependents()).isLessThanOrEqualTo(blastRadii.get(i - 1)
+                                                                                            .getTransitiveDependents());
+    }
+  }
+
+  /**
+   * @return the number of artifacts reaching the artifact id, searched backwards through the dependents
+   */
+  private int countDependents(final String artifactId) {
+    final Multimap<String, String> dependentsByDependency = HashMultimap.create();
+    artifacts.values()
+             .forEach(artifact -> artifact.getDependencies()
+                                          .forEach(dependency -> dependentsByDependency.put(dependency.getArtifactId(),
+                                                                                            artifact.getArtifactId())));
+    final Set<String> dependents = newHashSet();
+    final Deque<String> queue = new ArrayDeque<>();
+    queue.add(artifactId);
+    while (!queue.isEmpty()) {
+      dependentsByDependency.get(queue.poll()).stream().filter(dependents::add).forEach(queue::add);
+    }
+    dependents.remove(artifactId);
+    return dependents.size();
+  }
+
+  private void dependsOn(final String artifactId, final String... dependencies) {
+    final Artifact artifact = artifact(artifactId);
+    for (final String dependency : dependencies) {
+      artifact.getDependencies().add(dependency(dependency));
+    }
+  }
+
+  private Artifact artifact(final String artifactId) {
+    return artifacts.computeIfAbsent(artifactId, id -> new Artifact("software.reinvent",
+                                                                    id,
+                                                                    "1.0",
+                                                                    "jar",
+                                                                    LocalDateTime.now(),
+                                                                    null));
+  }
+
+  private static ArtifactDependency dependency(final String artifactId) {
+    return new ArtifactDependency("software.reinvent", artifactId, "1.0");
+  }
+}
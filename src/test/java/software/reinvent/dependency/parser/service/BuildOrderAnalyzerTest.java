@@ -0,0 +1,74 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.BuildOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildOrderAnalyzerTest {
+
+  private final Map<String, Artifact> artifacts = Maps.newHashMap();
+
+  @Test public void testWavesAndCycles() throws Exception {
+    dependsOn("core", "junit");
+    dependsOn("api", "core");
+    dependsOn("web", "api", "core", "web");
+    dependsOn("service", "api", "repository");
+    dependsOn("repository", "service");
+    dependsOn("tools");
+
+    final BuildOrder buildOrder = new BuildOrderAnalyzer().analyze(artifacts.values());
+
+    assertThat(artifactIds(buildOrder.getWaves().get(0))).containsExactly("core", "tools");
+    assertThat(artifactIds(buildOrder.getWaves().get(1))).containsExactly("api");
+    assertThat(artifactIds(buildOrder.getWaves().get(2))).containsExactly("repository", "service", "web");
+    assertThat(buildOrder.getWaves()).hasSize(3);
+    assertThat(buildOrder.getCycles()).hasSize(1);
+    assertThat(artifactIds(buildOrder.getCycles().get(0))).containsExactly("repository", "service");
+    assertThat(buildOrder.getWave(artifacts.get("web"))).isEqualTo(2);
+  }
+
+  @Test public void testHugeGraphsNeedNoRecursion() throws Exception {
+    final int size = 100_000;
+    for (int i = 0; i < size; i++) {
+      dependsOn("module" + i, "module" + ( i + 1 ));
+    }
+    // closes one cycle over the whole chain
+    dependsOn("module" + size, "module0");
+
+    final BuildOrder cyclic = new BuildOrderAnalyzer().analyze(artifacts.values());
+    assertThat(cyclic.getCycles()).hasSize(1);
+    assertThat(cyclic.getCycles().get(0)).hasSize(size + 1);
+    assertThat(cyclic.getWaves()).hasSize(1);
+
+    artifacts.get("module" + size).getDependencies().clear();
+    final BuildOrder chain = new BuildOrderAnalyzer().analyze(artifacts.values());
+    assertThat(chain.getCycles()).isEmpty();
+    assertThat(chain.getWaves()).hasSize(size + 1);
+    assertThat(chain.getWave(artifacts.get("module0"))).isEqualTo(size);
+  }
+
+  private void dependsOn(final String artifactId, final String... dependencies) {
+    final Artifact artifact = artifacts.computeIfAbsent(artifactId, id -> new Artifact("software.reinvent",
+                                                                                         id,
+                                                                                         "1.0",
+                                                                                         "jar",
+                                                                                         LocalDateTime.now(),
+                                                                                         null));
+    for (final String dependency : dependencies) {
+      artifact.getDependencies().add(new ArtifactDependency("software.reinvent", dependency, "1.0"));
+    }
+  }
+
+  private static List<String> artifactIds(final List<Artifact> artifacts) {
+    return artifacts.stream().map(Artifact::getArtifactId).collect(toList());
+  }
+}
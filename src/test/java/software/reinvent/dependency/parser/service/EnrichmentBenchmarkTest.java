@@ -0,0 +1,141 @@
+package software.reinvent.dependency.parser.service;
+
+import com.ning.http.client.AsyncHttpClientConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.libs.ws.ning.NingWSClient;
+import software.reinvent.dependency.parser.StubRepository;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.MetadataStatus;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Enriches generated dependencies against the {@link StubRepository}. A small run with injected errors checks that
+ * the lookups are retried. The benchmark, which logs the lookups per second and the tail latency of a single lookup,
+ * only runs with -Dbenchmark=true. Its size can be raised with -Dbenchmark.lookups, -Dbenchmark.latencyMillis and
+ * -Dbenchmark.errorRate.
+ */
+public class EnrichmentBenchmarkTest {
+
+  private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 1000);
+  private static final long LATENCY_MILLIS = Long.getLong("benchmark.latencyMillis", 2);
+  private static final double ERROR_RATE = Double.parseDouble(System.getProperty("benchmark.errorRate", "0.01"));
+  private static final int THREADS = 16;
+
+  private final Logger logger = LoggerFactory.getLogger(EnrichmentBenchmarkTest.class);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test public void testLookupsSurviveRepositoryErrors() throws Exception {
+    final Run run = enrich(50, 0, 0.1);
+
+    // a lookup only fails if all 4 attempts of a request failed
+    assertThat(run.resolved).isGreaterThanOrEqualTo(49);
+    assertThat(run.requests).isGreaterThanOrEqualTo(100);
+  }
+
+  @Test public void testEnrichmentThroughput() throws Exception {
+    assumeTrue("Run with -Dbenchmark=true", Boolean.getBoolean("benchmark"));
+    final Run run = enrich(LOOKUPS, LATENCY_MILLIS, ERROR_RATE);
+
+    logger.info("{} lookups with {} threads, {} ms latency and {} error rate: {} lookups/s, {} requests, "
+                + "p50 {} ms, p99 {} ms, p99.9 {} ms, max {} ms.",
+                LOOKUPS,
+                THREADS,
+                LATENCY_MILLIS,
+                ERROR_RATE,
+                Math.round(LOOKUPS / ( run.elapsedNanos / 1e9 )),
+                run.requests,
+                percentileMillis(run.latencies, 0.5),
+                percentileMillis(run.latencies, 0.99),
+                percentileMillis(run.latencies, 0.999),
+                percentileMillis(run.latencies, 1));
+    assertThat(run.resolved).isGreaterThan(LOOKUPS * 99L / 100);
+  }
+
+  /**
+   * Enriches generated dependencies with 16 threads against a stub repository with the given latency and errors.
+   */
+  private Run enrich(final int lookups, final long latencyMillis, final double errorRate) throws Exception {
+    final File fixtureDir = tempFolder.newFolder("repository");
+    for (int i = 0; i < lookups; i++) {
+      FileUtils.write(new File(fixtureDir, "bench/artifact-" + i + "/1.0/artifact-" + i + "-1.0.pom"),
+                      "<project><modelVersion>4.0.0</modelVersion><groupId>bench</groupId>"
+                      + "<artifactId>artifact-" + i + "</artifactId><version>1.0</version>"
+                      + "<description>Artifact " + i + "</description><licenses><license>"
+                      + "<name>The Apache Software License, Version 2.0</name></license></licenses></project>",
+                      StandardCharsets.UTF_8);
+    }
+    final List<ArtifactDependency> dependencies = IntStream.range(0, lookups)
+                                                           .mapToObj(i -> new ArtifactDependency("bench",
+                                                                                                 "artifact-" + i,
+                                                                                                 "1.0"))
+                                                           .collect(toList());
+    final long[] latencies = new long[lookups];
+    final AtomicInteger finishedLookups = new AtomicInteger();
+
+    try (StubRepository repository = new StubRepository(fixtureDir).latency(latencyMillis).errorRate(errorRate);
+         NingWSClient wsClient = new NingWSClient(new AsyncHttpClientConfig.Builder().build())) {
+      // the rate limit of the client is lifted to measure the pipeline instead of the limit
+      final RepositoryClient repositoryClient = new RepositoryClient(wsClient,
+                                                                     "",
+                                                                     "",
+                                                                     new AdaptiveRateLimiter(100_000, 1, 100_000),
+                                                                     new CircuitBreaker(100, 1000),
+                                                                     4,
+                                                                     10,
+                                                                     3000);
+      final DependencyEnricher enricher = new DependencyEnricher(repositoryClient,
+                                                                 new VersionResolver(repositoryClient,
+                                                                                     repository.getContentUri()),
+                                                                 repository.getRedirectUri(),
+                                                                 StubRepository.REPOSITORY) {
+        @Override public void enrich(final ArtifactDependency dependency, final String version) {
+          final long start = System.nanoTime();
+          super.enrich(dependency, version);
+          latencies[finishedLookups.getAndIncrement()] = System.nanoTime() - start;
+        }
+      };
+      final long start = System.nanoTime();
+      try (EnrichmentPipeline pipeline = new EnrichmentPipeline(enricher, THREADS)) {
+        dependencies.forEach(dependency -> pipeline.submit(dependency, "1.0"));
+        pipeline.awaitCompletion();
+      }
+      final Run run = new Run();
+      run.elapsedNanos = System.nanoTime() - start;
+      assertThat(finishedLookups.get()).isEqualTo(lookups);
+      Arrays.sort(latencies);
+      run.latencies = latencies;
+      run.requests = repository.getRequests();
+      run.resolved = dependencies.stream().filter(d -> d.getMetadataStatus() == MetadataStatus.RESOLVED).count();
+      return run;
+    }
+  }
+
+  private static double percentileMillis(final long[] sortedNanos, final double percentile) {
+    final int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return TimeUnit.NANOSECONDS.toMicros(sortedNanos[Math.max(0, index)]) / 1000d;
+  }
+
+  private static class Run {
+    private long elapsedNanos;
+    private long[] latencies;
+    private int requests;
+    private long resolved;
+  }
+}
@@ -0,0 +1,44 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import org.junit.Test;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+import software.reinvent.dependency.parser.model.MetadataStatus;
+
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EnrichmentPipelineTest {
+
+  @Test public void testEveryVersionIsEnrichedOnce() throws Exception {
+    final Multiset<String> lookups = ConcurrentHashMultiset.create();
+    final DependencyEnricher enricher = new DependencyEnricher(null, null, null, null) {
+      @Override public void enrich(final ArtifactDependency dependency, final String version) {
+        lookups.add(version);
+        dependency.getArtifactLicenses().add(new ArtifactLicense("License " + version, null));
+        dependency.addDescription("Description " + version);
+        dependency.addMetadataStatus(MetadataStatus.RESOLVED);
+      }
+    };
+    final ArtifactDependency junit = new ArtifactDependency("junit", "junit", null);
+    try (EnrichmentPipeline pipeline = new EnrichmentPipeline(enricher, 4)) {
+      IntStream.range(0, 1000).parallel().forEach(i -> {
+        final String version = "4." + i % 10;
+        junit.addVersions(Collections.singleton(version));
+        pipeline.submit(junit, version);
+      });
+      pipeline.awaitCompletion();
+    }
+
+    assertThat(lookups.elementSet()).hasSize(10);
+    assertThat(lookups).hasSize(10);
+    assertThat(junit.getVersions()).hasSize(10);
+    assertThat(junit.getArtifactLicenses()).hasSize(10);
+    assertThat(junit.getDescription()).startsWith("Description 4.");
+    assertThat(junit.getMetadataStatus()).isEqualTo(MetadataStatus.RESOLVED);
+  }
+}
@@ -0,0 +1,85 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.cache.Cache;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GitPomSourceTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File workTree;
+  private File bareRepository;
+
+  @Before public void createRepository() throws Exception {
+    workTree = tempFolder.newFolder("work");
+    FileUtils.copyDirectory(new File(getClass().getClassLoader().getResource("poms").getFile()), workTree);
+    git(workTree, "init", "-q");
+    git(workTree, "add", ".");
+    git(workTree, "-c", "user.name=test", "-c", "user.email=test@test", "commit", "-q", "-m", "first");
+    git(workTree, "tag", "v1");
+    FileUtils.write(new File(workTree, "first/pom.xml"),
+                    FileUtils.readFileToString(new File(workTree, "first/pom.xml")).replace("0.0.1", "0.0.2"));
+    git(workTree, "-c", "user.name=test", "-c", "user.email=test@test", "commit", "-q", "-am", "second");
+    bareRepository = new File(tempFolder.getRoot(), "mirror.git");
+    git(tempFolder.getRoot(), "clone", "-q", "--bare", workTree.getPath(), bareRepository.getPath());
+  }
+
+  @Test public void testPomsAreReadFromTheObjectDatabase() throws Exception {
+    final Cache<String, Model> blobCache = GitPomSource.newBlobCache();
+    final List<ParsedPom> head = new GitPomSource(bareRepository, "HEAD", blobCache).poms().collect(toList());
+    assertThat(head).hasSize(3);
+    assertThat(head.stream().map(pom -> pom.getModel().getArtifactId()).collect(toList())).containsOnly("first",
+                                                                                                        "second",
+                                                                                                        "parent");
+    assertThat(blobCache.size()).isEqualTo(3);
+
+    final List<ParsedPom> tagged = new GitPomSource(bareRepository, "v1", blobCache).poms().collect(toList());
+    assertThat(tagged).hasSize(3);
+    // only the changed pom of the first module is parsed again
+    assertThat(blobCache.size()).isEqualTo(4);
+    assertThat(tagged.stream()
+                     .filter(pom -> pom.getModel().getArtifactId().equals("first"))
+                     .findAny()
+                     .get()
+                     .getModel()
+                     .getVersion()).isEqualTo("0.0.1-SNAPSHOT");
+  }
+
+  @Test public void testIdenticalPomsAtSeveralPaths() throws Exception {
+    FileUtils.copyFile(new File(workTree, "second/pom.xml"), new File(workTree, "copy/second/pom.xml"));
+    git(workTree, "add", ".");
+    git(workTree, "-c", "user.name=test", "-c", "user.email=test@test", "commit", "-q", "-m", "copy");
+    final Cache<String, Model> blobCache = GitPomSource.newBlobCache();
+
+    final List<ParsedPom> poms = new GitPomSource(workTree, "HEAD", blobCache).poms().collect(toList());
+
+    assertThat(poms.stream().map(ParsedPom::getLocation).collect(toList()))
+      .containsOnly(workTree + "@HEAD:parent/pom.xml",
+                    workTree + "@HEAD:first/pom.xml",
+                    workTree + "@HEAD:second/pom.xml",
+                    workTree + "@HEAD:copy/second/pom.xml");
+    assertThat(blobCache.size()).isEqualTo(3);
+  }
+
+  private static void git(final File directory, final String... arguments) throws IOException,
+                                                                                InterruptedException {
+    final String[] command = new String[arguments.length + 1];
+    command[0] = "git";
+    System.arraycopy(arguments, 0, command, 1, arguments.length);
+    final Process process = new ProcessBuilder(command).directory(directory).inheritIO().start();
+    assertThat(process.waitFor()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,156 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.reinvent.dependency.parser.model.Artifact;
+import software.reinvent.dependency.parser.model.ArtifactDependency;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+import software.reinvent.dependency.parser.model.DependencyChange;
+import software.reinvent.dependency.parser.model.DependencyEdge;
+import software.reinvent.dependency.parser.model.DependencyScope;
+import software.reinvent.dependency.parser.model.DependencySnapshot;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphDiffTest {
+
+  private static final Set<DependencyScope> ALL_SCOPES = EnumSet.allOf(DependencyScope.class);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test public void testDiffAgainstJsonLinesReport() throws Exception {
+    final Set<Artifact> yesterday = Sets.newHashSet(artifact("shop",
+                                                             dependency("junit", "4.11", "EPL"),
+                                                             dependency("commons-io", "2.4", "Apache 2")),
+                                                    artifact("web", dependency("junit", "4.11", "EPL")));
+    final Set<Artifact> today = Sets.newHashSet(artifact("shop",
+                                                         dependency("junit", "4.12", "EPL 1.0"),
+                                                         dependency("guava", "19.0", "Apache 2")),
+                                                artifact("web", dependency("junit", "4.11", "EPL")),
+                                                artifact("admin", dependency("junit", "4.11", "EPL")));
+    final File resultDir = tempFolder.newFolder();
+    new ReportGenerator(yesterday, "software.reinvent").write(resultDir, "", ImmutableList.of(new JsonLinesWriter()));
+
+    final List<DependencyChange> changes;
+    try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(resultDir.listFiles()[0])) {
+      changes = new GraphDiff().diff(before, GraphDiff.snapshot(today, ALL_SCOPES));
+    }
+
+    assertThat(changes).extracting(DependencyChange::toString)
+                       .containsExactly("REMOVED commons-io:commons-io",
+                                        "ADDED guava:guava",
+                                        "CHANGED junit:junit");
+    final DependencyChange junit = changes.get(2);
+    assertThat(junit.getAddedVersions()).containsExactly("4.12");
+    assertThat(junit.getRemovedVersions()).isEmpty();
+    assertThat(junit.getAddedLicenses()).containsExactly("EPL 1.0");
+    assertThat(junit.getRemovedLicenses()).isEmpty();
+    assertThat(junit.getAddedDependents()).containsExactly("software.reinvent:admin");
+    assertThat(junit.getRemovedDependents()).isEmpty();
+    assertThat(changes.get(0).getRemovedDependents()).containsExactly("software.reinvent:shop");
+  }
+
+  @Test public void testLicensesAreComparedBySpdxId() throws Exception {
+    final ArtifactDependency yesterdayGuava = new ArtifactDependency("guava", "guava", "19.0");
+    yesterdayGuava.getArtifactLicenses().add(new ArtifactLicense("Apache 2", null, "Apache-2.0"));
+    final ArtifactDependency todayGuava = new ArtifactDependency("guava", "guava", "19.0");
+    todayGuava.getArtifactLicenses().add(new ArtifactLicense("The Apache Software License, Version 2.0",
+                                                             "https://spdx.org/licenses/Apache-2.0.html",
+                                                             "Apache-2.0"));
+    final File resultDir = tempFolder.newFolder();
+    new ReportGenerator(Sets.newHashSet(artifact("shop", yesterdayGuava)), "software.reinvent").write(resultDir,
+                                                                                                     "",
+                                                                                                     ImmutableList.of(
+                                                                                                       new JsonLinesWriter()));
+
+    final List<DependencyChange> changes;
+    try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(resultDir.listFiles()[0])) {
+      changes = new GraphDiff().diff(before, GraphDiff.snapshot(Sets.newHashSet(artifact("shop", todayGuava)),
+                                                                ALL_SCOPES));
+    }
+
+    assertThat(changes).isEmpty();
+  }
+
+  @Test public void testDiffOnlyComparesGivenScopes() throws Exception {
+    final Artifact shop = artifact("shop");
+    shop.addDependencyEdges(ImmutableList.of(edge(dependency("guava", "19.0", "Apache 2"), DependencyScope.COMPILE),
+                                             edge(dependency("junit", "4.12", "EPL"), DependencyScope.TEST)));
+    final Set<DependencyScope> compile = EnumSet.of(DependencyScope.COMPILE);
+    final File resultDir = tempFolder.newFolder();
+    new ReportGenerator(Sets.newHashSet(shop),
+                        new GroupIdClassifier(ImmutableList.of("software.reinvent")),
+                        compile).write(resultDir, "", ImmutableList.of(new JsonLinesWriter()));
+
+    try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(resultDir.listFiles()[0])) {
+      assertThat(new GraphDiff().diff(before, GraphDiff.snapshot(ImmutableList.of(shop), compile))).isEmpty();
+    }
+    try (JsonLinesSnapshotReader before = new JsonLinesSnapshotReader(resultDir.listFiles()[0])) {
+      assertThat(new GraphDiff().diff(before, GraphDiff.snapshot(ImmutableList.of(shop), ALL_SCOPES)))
+        .extracting(DependencyChange::toString)
+        .containsExactly("ADDED junit:junit");
+    }
+  }
+
+  @Test public void testUnsortedSnapshotsAreRejected() throws Exception {
+    final Iterator<DependencySnapshot> unsorted = Iterators.forArray(snapshot("junit"), snapshot("guava"));
+    try {
+      new GraphDiff().diff(unsorted, GraphDiff.snapshot(ImmutableList.of(), ALL_SCOPES));
+      throw new AssertionError("Unsorted snapshots must be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageContaining("not sorted");
+    }
+  }
+
+  @Test public void testHugeGraphs() throws Exception {
+    final Set<Artifact> before = Sets.newHashSet();
+    final Set<Artifact> after = Sets.newHashSet();
+    for (int i = 0; i < 1000; i++) {
+      final Artifact older = artifact("module" + i);
+      final Artifact newer = artifact("module" + i);
+      for (int j = 0; j < 100; j++) {
+        older.getDependencies().add(dependency("library" + ( i + j ), "1.0", "Apache 2"));
+        newer.getDependencies().add(dependency("library" + ( i + j ), i == 0 && j == 0 ? "2.0" : "1.0", "Apache 2"));
+      }
+      before.add(older);
+      after.add(newer);
+    }
+
+    final List<DependencyChange> changes = new GraphDiff().diff(GraphDiff.snapshot(before, ALL_SCOPES),
+                                                                GraphDiff.snapshot(after, ALL_SCOPES));
+
+    assertThat(changes).hasSize(1);
+    assertThat(changes.get(0).getAddedVersions()).containsExactly("2.0");
+  }
+
+  private static DependencySnapshot snapshot(final String artifactId) {
+    return new DependencySnapshot(artifactId, artifactId, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+  }
+
+  private static Artifact artifact(final String artifactId, final ArtifactDependency... dependencies) {
+    final Artifact artifact = new Artifact("software.reinvent", artifactId, "1.0", "jar", LocalDateTime.now(), null);
+    artifact.getDependencies().addAll(ImmutableList.copyOf(dependencies));
+    return artifact;
+  }
+
+  private static DependencyEdge edge(final ArtifactDependency dependency, final DependencyScope scope) {
+    return new DependencyEdge(dependency, scope, true, null, "jar", false);
+  }
+
+  private static ArtifactDependency dependency(final String artifactId, final String version, final String license) {
+    final ArtifactDependency dependency = new ArtifactDependency(artifactId, artifactId, version);
+    dependency.getArtifactLicenses().add(new ArtifactLicense(license, null));
+    return dependency;
+  }
+}
@@ -0,0 +1,39 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupIdClassifierTest {
+
+  private final GroupIdClassifier classifier = new GroupIdClassifier(ImmutableList.of("software.reinvent",
+                                                                                     "com.acme.*",
+                                                                                     "org.acme-labs*",
+                                                                                     " "));
+
+  @Test public void testExactPatterns() throws Exception {
+    assertThat(classifier.matches("software.reinvent")).isTrue();
+    assertThat(classifier.matches("Software.Reinvent")).isTrue();
+    assertThat(classifier.matches("software.reinvent.test")).isFalse();
+    assertThat(classifier.matches("software")).isFalse();
+  }
+
+  @Test public void testWildcardPatterns() throws Exception {
+    assertThat(classifier.matches("com.acme")).isTrue();
+    assertThat(classifier.matches("com.acme.shop")).isTrue();
+    assertThat(classifier.matches("com.acme.shop.web")).isTrue();
+    assertThat(classifier.matches("com.acmeshop")).isFalse();
+    assertThat(classifier.matches("org.acme-labs")).isTrue();
+    assertThat(classifier.matches("org.acme-labs-tools")).isTrue();
+    assertThat(classifier.matches("org.acme")).isFalse();
+  }
+
+  @Test public void testUnknownGroups() throws Exception {
+    assertThat(classifier.matches("junit")).isFalse();
+    assertThat(classifier.matches("")).isFalse();
+    assertThat(classifier.matches(null)).isFalse();
+    assertThat(GroupIdClassifier.NONE.matches("software.reinvent")).isFalse();
+    assertThat(new GroupIdClassifier(ImmutableList.of("*")).matches("junit")).isTrue();
+  }
+}
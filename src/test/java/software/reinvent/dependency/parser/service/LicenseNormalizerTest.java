@@ -0,0 +1,56 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import software.reinvent.dependency.parser.model.ArtifactLicense;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LicenseNormalizerTest {
+
+  private final LicenseNormalizer licenseNormalizer = new LicenseNormalizer();
+
+  @Test public void testSpellingsAreMappedToOneLicense() throws Exception {
+    final ArtifactLicense apache = licenseNormalizer.normalize("The Apache Software License, Version 2.0",
+                                                               "http://www.apache.org/licenses/LICENSE-2.0.txt");
+
+    assertThat(apache.getSpdxId()).isEqualTo("Apache-2.0");
+    assertThat(apache.getLicense()).isEqualTo("Apache License 2.0");
+    assertThat(apache.getUrl()).isEqualTo("https://spdx.org/licenses/Apache-2.0.html");
+    assertThat(licenseNormalizer.normalize("Apache 2", null)).isSameAs(apache);
+    assertThat(licenseNormalizer.normalize("apache-2.0", "")).isSameAs(apache);
+    assertThat(licenseNormalizer.normalize(null, "https://www.apache.org/licenses/LICENSE-2.0.html")).isSameAs(apache);
+    assertThat(licenseNormalizer.normalize("Apache License, Version 2.0", null)).isSameAs(apache);
+  }
+
+  @Test public void testDifferentUrlsOfOneLicenseCollapse() throws Exception {
+    final Set<ArtifactLicense> licenses = Sets.newHashSet(licenseNormalizer.normalize("Apache License 2.0",
+                                                                                      "http://www.apache.org/licenses/"
+                                                                                      + "LICENSE-2.0.txt"),
+                                                          licenseNormalizer.normalize("Apache License 2.0",
+                                                                                      "https://www.apache.org/licenses/"
+                                                                                      + "LICENSE-2.0"));
+
+    assertThat(licenses).hasSize(1);
+    assertThat(new ArtifactLicense("Apache 2", "http://apache.org", "Apache-2.0"))
+      .isEqualTo(licenses.iterator().next());
+  }
+
+  @Test public void testUrlIsUsedForUnknownNames() throws Exception {
+    assertThat(licenseNormalizer.normalize("Eclipse Public License", "http://www.eclipse.org/legal/epl-v10.html")
+                                .getSpdxId()).isEqualTo("EPL-1.0");
+    assertThat(licenseNormalizer.normalize("CDDL + GPLv2 with classpath exception", null).getSpdxId())
+      .isEqualTo("CDDL-1.1 OR GPL-2.0-only WITH Classpath-exception-2.0");
+  }
+
+  @Test public void testUnknownLicensesAreKept() throws Exception {
+    final ArtifactLicense proprietary = licenseNormalizer.normalize("ACME Commercial License", "http://acme.com");
+
+    assertThat(proprietary.getSpdxId()).isNull();
+    assertThat(proprietary.getLicense()).isEqualTo("ACME Commercial License");
+    assertThat(proprietary.getUrl()).isEqualTo("http://acme.com");
+    assertThat(licenseNormalizer.normalize("ACME Commercial License", "http://acme.com")).isSameAs(proprietary);
+  }
+}
@@ -0,0 +1,64 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.io.Files;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PomParseCacheTest {
+
+  private static final String POM = "<project><modelVersion>4.0.0</modelVersion><groupId>software.reinvent</groupId>"
+                                    + "<artifactId>cached</artifactId><version>1.0</version>"
+                                    + "<properties><junit.version>4.12</junit.version></properties>"
+                                    + "<dependencies><dependency><groupId>junit</groupId><artifactId>junit</artifactId>"
+                                    + "<version>${junit.version}</version><scope>test</scope></dependency>"
+                                    + "</dependencies><modules><module>core</module></modules></project>";
+
+  private File cacheDir;
+
+  @Before public void createCacheDir() throws Exception {
+    cacheDir = Files.createTempDir();
+  }
+
+  @After public void deleteCacheDir() throws Exception {
+    FileUtils.deleteDirectory(cacheDir);
+  }
+
+  @Test public void testCachedModelIsReusedAcrossRuns() throws Exception {
+    final byte[] pom = POM.getBytes("UTF-8");
+    final String hash = PomParseCache.hash(pom);
+    new PomReader(new PomParseCache(cacheDir, Long.MAX_VALUE)).read(pom);
+
+    final Optional<Model> cached = new PomParseCache(cacheDir, Long.MAX_VALUE).get(hash);
+
+    assertThat(cached.isPresent()).isTrue();
+    assertThat(cached.get().getArtifactId()).isEqualTo("cached");
+    assertThat(cached.get().getProperties().getProperty("junit.version")).isEqualTo("4.12");
+    assertThat(cached.get().getDependencies()).hasSize(1);
+    assertThat(cached.get().getDependencies().get(0).getScope()).isEqualTo("test");
+    assertThat(cached.get().getModules()).containsExactly("core");
+  }
+
+  @Test public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+    final Model model = new PomReader().read(POM.getBytes("UTF-8"));
+    final PomParseCache unlimited = new PomParseCache(cacheDir, Long.MAX_VALUE);
+    unlimited.put("aa", model);
+    final long entrySize = FileUtils.sizeOfDirectory(cacheDir);
+
+    final PomParseCache cache = new PomParseCache(cacheDir, 2 * entrySize);
+    cache.put("bb", model);
+    assertThat(cache.get("aa").isPresent()).isTrue();
+    cache.put("cc", model);
+
+    assertThat(cache.get("aa").isPresent()).isTrue();
+    assertThat(cache.get("bb").isPresent()).isFalse();
+    assertThat(cache.get("cc").isPresent()).isTrue();
+  }
+}
@@ -0,0 +1,77 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.reinvent.dependency.parser.model.ParsedPom;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactorPomSourceTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+  private File workspace;
+
+  @Before public void createWorkspace() throws Exception {
+    workspace = tempFolder.newFolder("workspace");
+    writePom("shop", "<modules><module>core</module><module>web/</module></modules>"
+                     + "<profiles><profile><id>it</id><modules><module>it</module><module>core</module></modules>"
+                     + "</profile></profiles>");
+    writePom("shop/core", "");
+    writePom("shop/web", "");
+    writePom("shop/it", "");
+    writePom("shop/sandbox", "");
+    writePom("shop/core/target/classes/META-INF/maven/software.reinvent/core", "");
+    writePom("shop/web/node_modules/some-module", "");
+    writePom("billing", "");
+  }
+
+  @Test public void testReactorFollowsModules() throws Exception {
+    final List<ParsedPom> poms = new ReactorPomSource(workspace, new PomReader(), ImmutableList.of()).poms()
+                                                                                                   .collect(toList());
+
+    assertThat(artifactIds(poms)).containsOnly("shop", "core", "web", "it", "billing").hasSize(5);
+  }
+
+  @Test public void testBrokenModulesAreSkipped() throws Exception {
+    FileUtils.write(new File(workspace, "shop/web/pom.xml"), "<project><modules><module>api</module>");
+    writePom("shop/web/api", "");
+
+    final List<ParsedPom> poms = new ReactorPomSource(workspace, new PomReader(), ImmutableList.of(), 2).poms()
+                                                                                                      .collect(toList());
+
+    assertThat(artifactIds(poms)).containsOnly("shop", "core", "it", "billing").hasSize(4);
+  }
+
+  @Test public void testWalkSkipsExcludedDirectories() throws Exception {
+    final List<ParsedPom> poms = new DirectoryPomSource(workspace).poms().collect(toList());
+    assertThat(artifactIds(poms)).containsOnly("shop", "core", "web", "it", "sandbox", "billing").hasSize(6);
+
+    final List<ParsedPom> withoutSandbox = new DirectoryPomSource(workspace,
+                                                                  new PomReader(),
+                                                                  ImmutableList.of("target", "shop/sandbox"))
+      .poms()
+      .collect(toList());
+    assertThat(artifactIds(withoutSandbox)).containsOnly("shop", "core", "web", "it", "some-module", "billing")
+                                           .hasSize(6);
+  }
+
+  private static List<String> artifactIds(final List<ParsedPom> poms) {
+    return poms.stream().map(pom -> pom.getModel().getArtifactId()).collect(toList());
+  }
+
+  private void writePom(final String dir, final String content) throws IOException {
+    final String artifactId = new File(dir).getName();
+    FileUtils.write(new File(workspace, dir + "/pom.xml"),
+                    "<project><modelVersion>4.0.0</modelVersion><groupId>software.reinvent</groupId><artifactId>"
+                    + artifactId + "</artifactId><version>1.0</version>" + content + "</project>");
+  }
+}
@@ -0,0 +1,79 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import software.reinvent.dependency.parser.TestBase;
+import software.reinvent.dependency.parser.model.DependencyScope;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReportGeneratorTest extends TestBase {
+
+  @Test public void testWriteAllFormatsInOnePass() throws Exception {
+    final File resultDir = tempFolder.getRoot();
+    final ImmutableList<ReportWriter> writers = ImmutableList.of(ReportFormat.CSV.createWriter("\t"),
+                                                                 ReportFormat.JSONL.createWriter("\t"),
+                                                                 ReportFormat.GRAPHML.createWriter("\t"),
+                                                                 ReportFormat.DOT.createWriter("\t"),
+                                                                 ReportFormat.LICENSES.createWriter("\t"));
+    new ReportGenerator(artifactDependencyGraph.getAllArtifacts(), internalGroupId).write(resultDir,
+                                                                                          StringUtils.EMPTY,
+                                                                                          writers);
+    final String now = LocalDate.now().toString();
+    assertThat(resultDir.listFiles()).hasSize(7);
+
+    final List<String> jsonLines = FileUtils.readLines(new File(resultDir, "Graph_" + now + ".jsonl"),
+                                                       StandardCharsets.UTF_8);
+    assertThat(jsonLines).hasSize(9);
+    assertThat(jsonLines.get(0)).startsWith("{\"type\":\"dependency\"");
+    assertThat(jsonLines.get(8)).startsWith("{\"type\":\"artifact\"");
+
+    final String graphMl = FileUtils.readFileToString(new File(resultDir, "Graph_" + now + ".graphml"),
+                                                      StandardCharsets.UTF_8);
+    assertThat(graphMl).contains("<node id=\"software.reinvent.test:first\">")
+                       .contains("<edge source=\"software.reinvent.test:second\" target=\"software.reinvent"
+                                 + ".test:first\"/>");
+
+    final String dot = FileUtils.readFileToString(new File(resultDir, "Graph_" + now + ".dot"),
+                                                  StandardCharsets.UTF_8);
+    assertThat(dot).startsWith("digraph dependencies {")
+                   .contains("\"software.reinvent.test:second\" -> \"org.apache.wicket:wicket-core\";");
+
+    final List<String> licenses = FileUtils.readLines(new File(resultDir, "Licenses_" + now + ".csv"),
+                                                      StandardCharsets.UTF_8);
+    assertThat(licenses.get(0)).startsWith("\"license\"\t\"spdxId\"");
+  }
+
+  @Test public void testWriteOnlyGivenScopes() throws Exception {
+    final File resultDir = tempFolder.getRoot();
+    new ReportGenerator(artifactDependencyGraph.getAllArtifacts(),
+                        new GroupIdClassifier(ImmutableList.of(internalGroupId)),
+                        EnumSet.of(DependencyScope.COMPILE, DependencyScope.RUNTIME)).write(resultDir,
+                                                                                            StringUtils.EMPTY,
+                                                                                            ImmutableList.of(
+                                                                                              ReportFormat.JSONL
+                                                                                                .createWriter("\t")));
+
+    final List<String> jsonLines = FileUtils.readLines(new File(resultDir, "Graph_" + LocalDate.now() + ".jsonl"),
+                                                       StandardCharsets.UTF_8);
+    // junit is a test and jetty a provided dependency
+    assertThat(jsonLines).hasSize(7);
+    assertThat(String.join("\n", jsonLines)).doesNotContain("\"artifactId\":\"junit\"")
+                                            .doesNotContain("\"artifactId\":\"jetty-all-server\"");
+    assertThat(jsonLines.get(0)).contains("\"scopes\":[\"COMPILE\"]");
+  }
+
+  @Test public void testParseFormat() throws Exception {
+    assertThat(ReportFormat.parse(" jsonl ")).isEqualTo(ReportFormat.JSONL);
+    assertThat(ReportFormat.parse("GraphML")).isEqualTo(ReportFormat.GRAPHML);
+    assertThat(ReportFormat.parse("licenses")).isEqualTo(ReportFormat.LICENSES);
+  }
+}
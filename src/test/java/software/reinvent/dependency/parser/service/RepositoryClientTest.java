@@ -0,0 +1,151 @@
+package software.reinvent.dependency.parser.service;
+
+import com.google.common.collect.ImmutableMap;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.ws.ning.NingWSClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class RepositoryClientTest {
+
+  // a timed out attempt would shift the scripted answers to the next attempt
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private HttpServer server;
+  private NingWSClient wsClient;
+  private String uri;
+  // maps the number of a request to the status to answer
+  private volatile IntUnaryOperator faults = request -> 200;
+
+  @Before public void startServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/pom", exchange -> {
+      final int status = faults.applyAsInt(requests.incrementAndGet());
+      final byte[] body = "<project/>".getBytes(StandardCharsets.UTF_8);
+      if ( status == 429 ) {
+        exchange.getResponseHeaders().add("Retry-After", "0");
+      }
+      exchange.sendResponseHeaders(status, status == 200 ? body.length : -1);
+      if ( status == 200 ) {
+        exchange.getResponseBody().write(body);
+      }
+      exchange.close();
+    });
+    server.start();
+    uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/pom";
+    wsClient = new NingWSClient(new AsyncHttpClientConfig.Builder().build());
+  }
+
+  @After public void stopServer() throws Exception {
+    wsClient.close();
+    server.stop(0);
+  }
+
+  @Test public void testThrottledRequestsAreRetriedWithLowerRate() throws Exception {
+    faults = request -> request <= 2 ? 429 : 200;
+    final AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(100, 1, 100);
+    final RepositoryClient client = createClient(rateLimiter, new CircuitBreaker(5, 60_000));
+
+    assertThat(client.get(uri, ImmutableMap.of("g", "junit"))).contains("<project/>");
+    assertThat(requests.get()).isEqualTo(3);
+    assertThat(rateLimiter.getRate()).isLessThan(100);
+  }
+
+  @Test public void testNotFoundIsNotRetried() throws Exception {
+    faults = request -> 404;
+    final RepositoryClient client = createClient(new AdaptiveRateLimiter(100, 1, 100), new CircuitBreaker(5, 60_000));
+
+    assertThat(client.get(uri, ImmutableMap.of("g", "junit"))).isEqualTo(Optional.empty());
+    assertThat(requests.get()).isEqualTo(1);
+  }
+
+  @Test public void testForbiddenFailsWithoutRetry() throws Exception {
+    faults = request -> 403;
+    final RepositoryClient client = createClient(new AdaptiveRateLimiter(100, 1, 100), new CircuitBreaker(5, 60_000));
+
+    try {
+      client.get(uri, ImmutableMap.of("g", "junit"));
+      fail("It is unknown whether the pom exists.");
+    } catch (RepositoryUnavailableException e) {
+      assertThat(e).hasMessageContaining("403");
+    }
+    assertThat(requests.get()).isEqualTo(1);
+  }
+
+  @Test public void testCircuitOpensForFailingRepository() throws Exception {
+    faults = request -> 503;
+    final CircuitBreaker circuitBreaker = new CircuitBreaker(3, 60_000);
+    final RepositoryClient client = createClient(new AdaptiveRateLimiter(100, 1, 100), circuitBreaker);
+
+    for (int i = 0; i < 3; i++) {
+      try {
+        client.get(uri, ImmutableMap.of("g", "junit"));
+        fail("The repository is not available.");
+      } catch (RepositoryUnavailableException e) {
+        // expected
+      }
+    }
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(requests.get()).isEqualTo(3);
+  }
+
+  @Test public void testCircuitClosesAfterSuccessfulProbe() throws Exception {
+    faults = request -> request <= 2 ? 503 : 200;
+    final CircuitBreaker circuitBreaker = new CircuitBreaker(2, 0);
+    final RepositoryClient client = createClient(new AdaptiveRateLimiter(100, 1, 100), circuitBreaker);
+
+    assertThat(client.get(uri, ImmutableMap.of("g", "junit"))).contains("<project/>");
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test public void testInterruptedProbeIsReleased() throws Exception {
+    faults = request -> request == 1 ? 503 : 200;
+    final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0);
+    // the second attempt is the probe and waits for a backoff of up to a minute
+    final RepositoryClient client = new RepositoryClient(wsClient,
+                                                         "",
+                                                         "",
+                                                         new AdaptiveRateLimiter(100, 1, 100),
+                                                         circuitBreaker,
+                                                         2,
+                                                         60_000,
+                                                         TIMEOUT_MILLIS);
+    final AtomicReference<RepositoryUnavailableException> failure = new AtomicReference<>();
+    final Thread probe = new Thread(() -> {
+      try {
+        client.get(uri, ImmutableMap.of("g", "junit"));
+      } catch (RepositoryUnavailableException e) {
+        failure.set(e);
+      }
+    });
+    probe.start();
+    while (circuitBreaker.getState() != CircuitBreaker.State.HALF_OPEN) {
+      Thread.sleep(1);
+    }
+    probe.interrupt();
+    probe.join(10_000);
+
+    assertThat(failure.get()).hasMessageContaining("Interrupted");
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    final RepositoryClient nextClient = createClient(new AdaptiveRateLimiter(100, 1, 100), circuitBreaker);
+    assertThat(nextClient.get(uri, ImmutableMap.of("g", "junit"))).contains("<project/>");
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  private RepositoryClient createClient(final AdaptiveRateLimiter rateLimiter, final CircuitBreaker circuitBreaker) {
+    return new RepositoryClient(wsClient, "", "", rateLimiter, circuitBreaker, 3, 1, TIMEOUT_MILLIS);
+  }
+}
@@ -0,0 +1,101 @@
+package software.reinvent.dependency.parser.service;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.FalseFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScanIndexTest {
+
+  private final PomFileWalker walker = new PomFileWalker(DirectoryPomSource.DEFAULT_EXCLUDES);
+  private File rootDir;
+  private File indexDir;
+
+  @Before public void createDirs() throws Exception {
+    rootDir = com.google.common.io.Files.createTempDir();
+    indexDir = com.google.common.io.Files.createTempDir();
+    pom("pom.xml");
+    pom("core/pom.xml");
+    pom("core/target/classes/pom.xml");
+    FileUtils.write(new File(rootDir, "core/src/main/java/Core.java"), "class Core {}");
+    pom("web/pom.xml");
+  }
+
+  @After public void deleteDirs() throws Exception {
+    FileUtils.deleteDirectory(rootDir);
+    FileUtils.deleteDirectory(indexDir);
+  }
+
+  @Test public void testIndexedWalkFindsTheSamePoms() throws Exception {
+    final List<Path> pomFiles = walker.walk(rootDir.toPath(), false);
+
+    assertThat(walker.walk(rootDir.toPath(), new ScanIndex(indexDir))).containsOnlyElementsOf(pomFiles)
+                                                                      .hasSameSizeAs(pomFiles);
+    assertThat(walker.walk(rootDir.toPath(), new ScanIndex(indexDir))).containsOnlyElementsOf(pomFiles)
+                                                                      .hasSameSizeAs(pomFiles);
+    assertThat(pomFiles).hasSize(3);
+  }
+
+  @Test public void testUnchangedDirectoriesAreNotListed() throws Exception {
+    age(rootDir);
+    walker.walk(rootDir.toPath(), new ScanIndex(indexDir));
+
+    // a new pom in a directory whose modification time is restored stays unseen
+    final File src = new File(rootDir, "core/src");
+    final FileTime modified = Files.getLastModifiedTime(src.toPath());
+    pom("core/src/pom.xml");
+    Files.setLastModifiedTime(src.toPath(), modified);
+
+    assertThat(walker.walk(rootDir.toPath(), new ScanIndex(indexDir))).hasSize(3);
+    assertThat(walker.walk(rootDir.toPath(), false)).hasSize(4);
+  }
+
+  @Test public void testChangedDirectoriesAreListed() throws Exception {
+    age(rootDir);
+    walker.walk(rootDir.toPath(), new ScanIndex(indexDir));
+
+    pom("api/pom.xml");
+    FileUtils.deleteDirectory(new File(rootDir, "web"));
+    final List<Path> pomFiles = walker.walk(rootDir.toPath(), new ScanIndex(indexDir));
+
+    assertThat(pomFiles).containsOnly(new File(rootDir, "pom.xml").toPath(),
+                                      new File(rootDir, "core/pom.xml").toPath(),
+                                      new File(rootDir, "api/pom.xml").toPath());
+  }
+
+  @Test public void testRacyDirectoriesAreListedAgain() throws Exception {
+    walker.walk(rootDir.toPath(), new ScanIndex(indexDir));
+
+    // the directories were modified right before the scan, so a change within the same timestamp is still found
+    final File src = new File(rootDir, "core/src");
+    final FileTime modified = Files.getLastModifiedTime(src.toPath());
+    pom("core/src/pom.xml");
+    Files.setLastModifiedTime(src.toPath(), modified);
+
+    assertThat(walker.walk(rootDir.toPath(), new ScanIndex(indexDir))).hasSize(4);
+  }
+
+  private void pom(final String path) throws Exception {
+    FileUtils.write(new File(rootDir, path), "<project/>");
+  }
+
+  /**
+   * Moves the modification time of all directories an hour back, so none of them is racy.
+   */
+  private static void age(final File dir) throws Exception {
+    final FileTime anHourAgo = FileTime.fromMillis(System.currentTimeMillis() - 3_600_000);
+    for (final File file : FileUtils.listFilesAndDirs(dir, FalseFileFilter.INSTANCE, TrueFileFilter.INSTANCE)) {
+      Files.setLastModifiedTime(file.toPath(), anHourAgo);
+    }
+  }
+}
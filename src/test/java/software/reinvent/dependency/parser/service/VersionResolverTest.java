@@ -0,0 +1,76 @@
+package software.reinvent.dependency.parser.service;
+
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.ws.ning.NingWSClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionResolverTest {
+
+  private static final String METADATA = "<metadata><groupId>junit</groupId><artifactId>junit</artifactId>"
+                                         + "<versioning><latest>4.13-SNAPSHOT</latest><release>4.12</release>"
+                                         + "<versions><version>3.8.1</version><version>4.11</version>"
+                                         + "<version>4.12</version><version>4.13-SNAPSHOT</version></versions>"
+                                         + "</versioning></metadata>";
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private HttpServer server;
+  private NingWSClient wsClient;
+  private VersionResolver versionResolver;
+
+  @Before public void startServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      requests.incrementAndGet();
+      final byte[] body = METADATA.getBytes(StandardCharsets.UTF_8);
+      if ( exchange.getRequestURI().getPath().equals("/content/junit/junit/maven-metadata.xml") ) {
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      } else {
+        exchange.sendResponseHeaders(404, -1);
+      }
+      exchange.close();
+    });
+    server.start();
+    wsClient = new NingWSClient(new AsyncHttpClientConfig.Builder().build());
+    versionResolver = new VersionResolver(new RepositoryClient(wsClient, "", ""),
+                                          "http://127.0.0.1:" + server.getAddress().getPort() + "/content/");
+  }
+
+  @After public void stopServer() throws Exception {
+    wsClient.close();
+    server.stop(0);
+  }
+
+  @Test public void testResolve() throws Exception {
+    assertThat(versionResolver.resolve("junit", "junit", "4.11")).contains("4.11");
+    assertThat(requests.get()).isEqualTo(0);
+
+    assertThat(versionResolver.resolve("junit", "junit", "RELEASE")).contains("4.12");
+    assertThat(versionResolver.resolve("junit", "junit", null)).contains("4.12");
+    assertThat(versionResolver.resolve("junit", "junit", "${junit.version}")).contains("4.12");
+    assertThat(versionResolver.resolve("junit", "junit", "LATEST")).contains("4.13-SNAPSHOT");
+    assertThat(versionResolver.resolve("junit", "junit", "[4.0,4.12)")).contains("4.11");
+    assertThat(versionResolver.resolve("junit", "junit", "[5.0,)")).isEqualTo(Optional.empty());
+    assertThat(requests.get()).isEqualTo(1);
+
+    assertThat(versionResolver.resolve("org.unknown", "unknown", "RELEASE")).isEqualTo(Optional.empty());
+    assertThat(versionResolver.resolve("org.unknown", "unknown", "LATEST")).isEqualTo(Optional.empty());
+    assertThat(requests.get()).isEqualTo(2);
+  }
+
+  @Test public void testNexusContentUri() throws Exception {
+    assertThat(VersionResolver.nexusContentUri("https://repository.sonatype.org/service/local/artifact/maven/redirect",
+                                               "central-proxy"))
+      .isEqualTo("https://repository.sonatype.org/service/local/repositories/central-proxy/content");
+  }
+}